@@ -41,7 +41,7 @@ public class AlarmNameStep extends Step<String> {
 
             @Override
             public void onTextChanged(CharSequence s, int start, int before, int count) {
-                markAsCompletedOrUncompleted(true);
+                markAsCompletedOrUncompletedDebounced(true);
             }
 
             @Override
@@ -7,9 +7,13 @@ import android.widget.TextView;
 
 import androidx.annotation.NonNull;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.io.Serializable;
 
 import ernestoyaquello.com.verticalstepperform.Step;
+import ernestoyaquello.com.verticalstepperform.StepDataCodec;
 import verticalstepperform.ernestoyaquello.com.verticalstepperform.R;
 
 public class AlarmTimeStep extends Step<AlarmTimeStep.TimeHolder> {
@@ -113,6 +117,22 @@ public class AlarmTimeStep extends Step<AlarmTimeStep.TimeHolder> {
         return new IsDataValid(true);
     }
 
+    @Override
+    protected StepDataCodec<TimeHolder> getStepDataCodec() {
+        return new StepDataCodec<TimeHolder>() {
+            @Override
+            public void writeStepData(TimeHolder data, DataOutput output) throws IOException {
+                output.writeByte(data.hour);
+                output.writeByte(data.minutes);
+            }
+
+            @Override
+            public TimeHolder readStepData(DataInput input) throws IOException {
+                return new TimeHolder(input.readByte(), input.readByte());
+            }
+        };
+    }
+
     private void updatedAlarmTimeText() {
         alarmTimeTextView.setText(getStepDataAsHumanReadableString());
     }
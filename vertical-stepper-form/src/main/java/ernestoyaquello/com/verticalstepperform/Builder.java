@@ -2,6 +2,7 @@ package ernestoyaquello.com.verticalstepperform;
 
 import android.graphics.Typeface;
 
+import ernestoyaquello.com.verticalstepperform.listener.StepperFormInitializationListener;
 import ernestoyaquello.com.verticalstepperform.listener.StepperFormListener;
 
 /**
@@ -531,6 +532,187 @@ public class Builder {
         return this;
     }
 
+    /**
+     * Specifies whether or not the steps will be rendered in virtualized mode. In this mode, only
+     * the layouts of the steps that are visible on the screen get bound to them, and the layouts
+     * of the steps that go off the screen get recycled. This is recommended for forms with many
+     * steps, as it reduces both the initialization time and the memory footprint of the form.
+     *
+     * Please note that, when using this mode, getEntireStepLayout() will return null for the steps
+     * that are not visible.
+     *
+     * @param virtualizeStepViews True to render the steps in virtualized mode; false to not.
+     * @return The builder instance.
+     */
+    public Builder virtualizeStepViews(boolean virtualizeStepViews) {
+        formView.style.virtualizeStepViews = virtualizeStepViews;
+
+        return this;
+    }
+
+    /**
+     * Specifies whether or not the content layout of each step will be created lazily. If set to
+     * true, createStepContentLayout() will only be called when the step is opened for the first
+     * time or when its content is preloaded via preloadStepContent(), and the restoration of the
+     * step data will be deferred until then.
+     *
+     * Please note that, in this mode, getStepData() and getStepDataAsHumanReadableString() might
+     * be called on steps whose content layout hasn't been created yet, so they must handle it.
+     *
+     * @param createStepContentLazily True to create the content of the steps lazily; false to not.
+     * @return The builder instance.
+     */
+    public Builder createStepContentLazily(boolean createStepContentLazily) {
+        formView.style.createStepContentLazily = createStepContentLazily;
+
+        return this;
+    }
+
+    /**
+     * Specifies whether or not the updates of the step views will be coalesced. If set to true,
+     * the changes made to the steps (e.g., updating their titles or marking them as completed)
+     * will not be rendered right away; instead, the views of the affected steps will be updated
+     * only once, on the next frame, according to the state the steps have at that moment.
+     *
+     * Use flushPendingStepViewUpdates() on the form to apply the pending updates immediately.
+     *
+     * @param coalesceStepViewUpdates True to coalesce the updates of the step views; false to not.
+     * @return The builder instance.
+     */
+    public Builder coalesceStepViewUpdates(boolean coalesceStepViewUpdates) {
+        formView.style.coalesceStepViewUpdates = coalesceStepViewUpdates;
+
+        return this;
+    }
+
+    /**
+     * Specifies whether or not the steps will be expanded and collapsed using transform-based
+     * animations. If set to true, the views will be measured only once per animation and animated
+     * by changing their clip bounds and translation instead of their height, so the form doesn't
+     * have to be laid out again on every frame. This makes the animations much smoother on long
+     * forms, although the content below an animated view will move to its final position at once
+     * instead of sliding along with it.
+     *
+     * @param useTransformBasedSlideAnimations True to use transform-based animations; false to
+     *                                         animate the height of the views.
+     * @return The builder instance.
+     */
+    public Builder useTransformBasedSlideAnimations(boolean useTransformBasedSlideAnimations) {
+        formView.style.useTransformBasedSlideAnimations = useTransformBasedSlideAnimations;
+
+        return this;
+    }
+
+    /**
+     * Specifies whether or not the views will be rendered into a hardware layer while they are
+     * being expanded or collapsed. It only has an effect when transform-based animations are used
+     * (see useTransformBasedSlideAnimations()), and it avoids redrawing the content of the views
+     * on every frame of the animation.
+     *
+     * @param useHardwareLayersInSlideAnimations True to use hardware layers; false to not.
+     * @return The builder instance.
+     */
+    public Builder useHardwareLayersInSlideAnimations(boolean useHardwareLayersInSlideAnimations) {
+        formView.style.useHardwareLayersInSlideAnimations = useHardwareLayersInSlideAnimations;
+
+        return this;
+    }
+
+    /**
+     * Specifies the maximum number of views that can be expanded or collapsed with an animation at
+     * the same time. The views that go over this limit will be expanded or collapsed instantly,
+     * starting with the smallest ones. By default, up to 4 views can be animated at once.
+     *
+     * Please note that the animations that start at the same time (e.g., the ones of the step that
+     * gets opened and the ones of the step that gets closed) are always performed in sync, and
+     * that they are finished instantly if the device can't render them smoothly.
+     *
+     * @param maxConcurrentSlideAnimations The maximum number of views that can be animated at
+     *                                     once, or -1 for no limit.
+     * @return The builder instance.
+     */
+    public Builder maxConcurrentSlideAnimations(int maxConcurrentSlideAnimations) {
+        formView.style.maxConcurrentSlideAnimations = maxConcurrentSlideAnimations;
+
+        return this;
+    }
+
+    /**
+     * Specifies whether or not the headers of the steps will be drawn by a single custom view. If
+     * set to true, the circle, the number or icon inside it, the line to the next step, the title
+     * and the subtitle of each step will be drawn directly on a canvas by a StepHeaderView instead
+     * of using a separate view for each element, which reduces considerably the number of views of
+     * the form and the time it takes to measure, lay out and draw them.
+     *
+     * Please note that this option is only applied to the default step layout, so it will have no
+     * effect if getStepLayoutResourceId() is overridden on the form.
+     *
+     * @param useFlatStepHeaders True to use a single custom view for the headers; false to not.
+     * @return The builder instance.
+     */
+    public Builder useFlatStepHeaders(boolean useFlatStepHeaders) {
+        formView.style.useFlatStepHeaders = useFlatStepHeaders;
+
+        return this;
+    }
+
+    /**
+     * Specifies whether or not the layouts of the steps will be reused. If set to true, the form
+     * will take its step layouts from StepLayoutPool instead of inflating them, and it will give
+     * them back to the pool when its activity gets destroyed or when releaseStepLayouts() is called
+     * on it, so they can be reused by any other form that uses the same step layouts. The pool can
+     * also be filled in advance with StepLayoutPool.prewarm().
+     *
+     * Please note that this option has no effect on virtualized forms, whose layouts are already
+     * recycled as the user scrolls.
+     *
+     * @param reuseStepLayouts True to reuse the step layouts; false to not.
+     * @return The builder instance.
+     */
+    public Builder reuseStepLayouts(boolean reuseStepLayouts) {
+        formView.style.reuseStepLayouts = reuseStepLayouts;
+
+        return this;
+    }
+
+    /**
+     * Specifies the minimum size that the data of a step must have to be spilled to disk when the
+     * state of the form gets saved. The data of such steps will be written into an app-private
+     * file, and only a small reference to it will be kept in the saved state, which helps avoid
+     * exceeding the maximum size of the saved state on forms with large step data. Once the state
+     * is restored, the data will be read from the file only when it is needed.
+     *
+     * By default, the data of the steps is never spilled to disk.
+     *
+     * @param minimumSizeInBytes The minimum size of the data of a step for it to be spilled to
+     *                           disk, or -1 to never spill the data to disk.
+     * @return The builder instance.
+     */
+    public Builder spillLargeStepDataToDisk(int minimumSizeInBytes) {
+        formView.style.stepDataSpillThresholdInBytes = minimumSizeInBytes;
+
+        return this;
+    }
+
+    /**
+     * Enables the autosaving of the form. If enabled, the changes made to the steps will be saved
+     * in batches into an app-private draft file as the user fills in the form, and the draft will
+     * be restored when the form is initialized again (e.g., after the process has been killed).
+     * The draft is written on a background thread, so the user interaction is never blocked.
+     *
+     * The draft will only be restored if the form has the same steps it had when it was saved.
+     * Use discardAutosavedDraft() on the form once the draft is no longer needed.
+     *
+     * @param draftName The name that identifies the draft of this form. It must only contain
+     *                  characters that are valid in a file name.
+     * @return The builder instance.
+     */
+    public Builder autosaveDraft(String draftName) {
+        formView.style.autosaveDraftName = draftName;
+
+        return this;
+    }
+
     /**
      * Sets up the form and initializes it.
      */
@@ -539,6 +721,23 @@ public class Builder {
         formView.initializeForm(listener, steps);
     }
 
+    /**
+     * Sets up the form and initializes it asynchronously. The layouts of the steps will be
+     * inflated in a background thread and attached to the form in small chunks, one frame at a
+     * time, so the main thread doesn't get blocked. The first step will be displayed as soon as
+     * it is ready.
+     *
+     * Please note that steps cannot be added or removed dynamically until the initialization
+     * finishes.
+     *
+     * @param initializationListener The optional listener to notify once the form has been fully
+     *                               initialized.
+     */
+    public void initAsync(StepperFormInitializationListener initializationListener) {
+        addConfirmationStepIfRequested();
+        formView.initializeFormAsync(listener, steps, initializationListener);
+    }
+
     private void addConfirmationStepIfRequested() {
         if (formView.style.includeConfirmationStep) {
             StepHelper[] currentSteps = steps;
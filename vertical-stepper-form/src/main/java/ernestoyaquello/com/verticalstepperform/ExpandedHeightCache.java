@@ -0,0 +1,96 @@
+package ernestoyaquello.com.verticalstepperform;
+
+import android.view.View;
+import android.view.ViewGroup;
+
+/**
+ * Cache of the height that a view has when it is expanded, which is what the slide animations
+ * need to know before they start. Each view gets its own cache, which is kept in the view itself.
+ *
+ * The cached height is updated for free every time the view is laid out while expanded, and it is
+ * only measured again when the width of the view changes or when its content changes. The changes
+ * in the content of a view group are detected because its children will have requested a new
+ * layout; the content of other views must be invalidated explicitly with invalidate().
+ */
+class ExpandedHeightCache implements View.OnLayoutChangeListener {
+
+    private int width;
+    private int height;
+
+    private ExpandedHeightCache() {
+        this.width = -1;
+    }
+
+    /**
+     * Gets the height the view has when expanded, measuring it only if necessary.
+     *
+     * @param view The view.
+     * @param width The width available for the view.
+     * @return The expanded height of the view.
+     */
+    static int getExpandedHeight(View view, int width) {
+        ExpandedHeightCache cache = obtain(view);
+        if (cache.width != width || hasContentChanged(view)) {
+            view.measure(
+                    View.MeasureSpec.makeMeasureSpec(width, View.MeasureSpec.EXACTLY),
+                    View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED));
+            cache.width = width;
+            cache.height = view.getMeasuredHeight();
+        }
+
+        return cache.height;
+    }
+
+    static void invalidate(View view) {
+        ExpandedHeightCache cache = (ExpandedHeightCache) view.getTag(R.id.vertical_stepper_form_expanded_height);
+        if (cache != null) {
+            cache.width = -1;
+        }
+    }
+
+    @Override
+    public void onLayoutChange(
+            View view,
+            int left,
+            int top,
+            int right,
+            int bottom,
+            int oldLeft,
+            int oldTop,
+            int oldRight,
+            int oldBottom) {
+
+        // While the view is expanded and wraps its content, its actual height is the one we need
+        if (view.getVisibility() == View.VISIBLE
+                && view.getLayoutParams().height == ViewGroup.LayoutParams.WRAP_CONTENT) {
+            width = right - left;
+            height = bottom - top;
+        }
+    }
+
+    private static ExpandedHeightCache obtain(View view) {
+        ExpandedHeightCache cache = (ExpandedHeightCache) view.getTag(R.id.vertical_stepper_form_expanded_height);
+        if (cache == null) {
+            cache = new ExpandedHeightCache();
+            view.setTag(R.id.vertical_stepper_form_expanded_height, cache);
+            view.addOnLayoutChangeListener(cache);
+        }
+
+        return cache;
+    }
+
+    private static boolean hasContentChanged(View view) {
+        // The layout requests of the view itself are ignored because they are also caused by the
+        // slide animations, which change its height and visibility
+        if (view instanceof ViewGroup) {
+            ViewGroup viewGroup = (ViewGroup) view;
+            for (int i = 0; i < viewGroup.getChildCount(); i++) {
+                if (viewGroup.getChildAt(i).isLayoutRequested()) {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+}
@@ -0,0 +1,133 @@
+package ernestoyaquello.com.verticalstepperform;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * This class saves the draft of a form in a journal as the user fills it in. The changes are
+ * collected on the main thread and saved in batches, so the records of the steps are encoded once
+ * per batch no matter how many times the steps change, and the journal only gets the records of
+ * the steps that actually changed.
+ */
+class FormAutosave {
+
+    private static final long BATCH_DELAY_MILLIS = 1000;
+
+    private final VerticalStepperFormView formView;
+    private final FormDraftJournal journal;
+    private final Handler handler;
+    private final Runnable flushRunnable;
+    private final Set<Step<?>> changedSteps;
+    private boolean snapshotNeeded;
+    private boolean flushScheduled;
+
+    FormAutosave(VerticalStepperFormView formView, FormDraftJournal journal) {
+        this.formView = formView;
+        this.journal = journal;
+        this.handler = new Handler(Looper.getMainLooper());
+        this.flushRunnable = this::flush;
+        this.changedSteps = Collections.newSetFromMap(new IdentityHashMap<>());
+        this.snapshotNeeded = true;
+    }
+
+    void onStepChanged(Step<?> step) {
+        changedSteps.add(step);
+        scheduleFlush();
+    }
+
+    void onOpenStepChanged() {
+        scheduleFlush();
+    }
+
+    void onStepsRestructured() {
+        // The positions of the steps have changed, so the entire draft has to be written again
+        snapshotNeeded = true;
+        changedSteps.clear();
+        scheduleFlush();
+    }
+
+    /**
+     * Saves the pending changes right away instead of waiting for the current batch to finish.
+     * Only the encoding of the changes happens on the calling thread; the journal is still written
+     * on a background thread.
+     */
+    void flush() {
+        handler.removeCallbacks(flushRunnable);
+        if (!flushScheduled) {
+            return;
+        }
+        flushScheduled = false;
+
+        int numberOfSteps = formView.getTotalNumberOfSteps();
+        int openStepPosition = formView.getOpenStepPosition();
+        if (snapshotNeeded) {
+            byte[][] stepRecords = new byte[numberOfSteps][];
+            for (int i = 0; i < numberOfSteps; i++) {
+                stepRecords[i] = encodeStep(i);
+            }
+            journal.writeSnapshot(stepRecords, openStepPosition);
+            snapshotNeeded = false;
+        } else {
+            List<Integer> positions = new ArrayList<>(changedSteps.size());
+            for (Step<?> step : changedSteps) {
+                int position = formView.getStepPosition(step);
+                if (position != -1) {
+                    positions.add(position);
+                }
+            }
+
+            int[] changedPositions = new int[positions.size()];
+            byte[][] stepRecords = new byte[positions.size()][];
+            for (int i = 0; i < changedPositions.length; i++) {
+                changedPositions[i] = positions.get(i);
+                stepRecords[i] = encodeStep(changedPositions[i]);
+            }
+            journal.append(changedPositions, stepRecords, openStepPosition);
+        }
+
+        changedSteps.clear();
+    }
+
+    /**
+     * Reads the draft that was saved in the journal, if any.
+     *
+     * @param stepHelpers The step helpers of the form.
+     * @return The saved draft, or null if there is no draft that matches the steps of the form.
+     */
+    FormStateCodec.SavedFormState readDraft(List<StepHelper> stepHelpers) {
+        FormDraftJournal.Draft draft = journal.read(stepHelpers.size());
+        if (draft == null) {
+            return null;
+        }
+
+        // The records that were saved by a different version of the form are skipped
+        byte[] encodedState = FormStateCodec.encode(draft.stepRecords, null, draft.openStepPosition, false);
+        return FormStateCodec.decode(encodedState, stepHelpers, null);
+    }
+
+    void discard() {
+        handler.removeCallbacks(flushRunnable);
+        flushScheduled = false;
+        snapshotNeeded = true;
+        changedSteps.clear();
+
+        journal.delete();
+    }
+
+    private void scheduleFlush() {
+        if (!flushScheduled) {
+            flushScheduled = true;
+            handler.postDelayed(flushRunnable, BATCH_DELAY_MILLIS);
+        }
+    }
+
+    private byte[] encodeStep(int position) {
+        return FormStateCodec.encodeStep(formView.getStepHelper(position).getStepInstance(), null);
+    }
+}
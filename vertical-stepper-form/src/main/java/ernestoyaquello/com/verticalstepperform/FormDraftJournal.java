@@ -0,0 +1,239 @@
+package ernestoyaquello.com.verticalstepperform;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Append-only journal where the draft of a form is saved. Every time some steps change, only the
+ * records of those steps are appended to the journal; the journal is compacted from time to time by
+ * rewriting it with just the latest record of each step.
+ *
+ * All the writes are performed in order on a background thread, so the main thread never waits for
+ * the disk to save the draft. The draft is read on that same thread too, so it is never read while
+ * a previous write is still in progress. The records themselves are the ones produced by
+ * FormStateCodec.
+ */
+class FormDraftJournal {
+
+    private static final int MAGIC_NUMBER = 0x56534644;
+    private static final int FORMAT_VERSION = 2;
+    private static final int ENTRY_STEP_RECORD = 1;
+    private static final int ENTRY_OPEN_STEP = 2;
+    private static final int MIN_ENTRIES_BEFORE_COMPACTION = 32;
+
+    private static final ExecutorService WRITE_EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "VerticalStepperFormDraftJournal");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final File file;
+
+    // Only accessed from the main thread
+    private byte[][] latestStepRecords;
+    private int numberOfAppendedEntries;
+
+    FormDraftJournal(File file) {
+        this.file = file;
+    }
+
+    /**
+     * Writes the entire draft, replacing whatever the journal contained before.
+     *
+     * @param stepRecords The records of all the steps of the form.
+     * @param openStepPosition The position of the open step.
+     */
+    void writeSnapshot(byte[][] stepRecords, int openStepPosition) {
+        latestStepRecords = stepRecords.clone();
+        numberOfAppendedEntries = 0;
+
+        final byte[][] recordsToWrite = latestStepRecords.clone();
+        WRITE_EXECUTOR.execute(() -> writeSnapshotToFile(recordsToWrite, openStepPosition));
+    }
+
+    /**
+     * Appends the records of the steps that have changed. If the journal has grown too much, it
+     * gets compacted instead.
+     *
+     * @param positions The positions of the steps that have changed.
+     * @param stepRecords The new records of those steps.
+     * @param openStepPosition The position of the open step.
+     */
+    void append(int[] positions, byte[][] stepRecords, int openStepPosition) {
+        if (latestStepRecords == null) {
+            throw new IllegalStateException("A snapshot must be written before appending records");
+        }
+
+        for (int i = 0; i < positions.length; i++) {
+            latestStepRecords[positions[i]] = stepRecords[i];
+        }
+
+        numberOfAppendedEntries += positions.length + 1;
+        if (numberOfAppendedEntries > Math.max(MIN_ENTRIES_BEFORE_COMPACTION, latestStepRecords.length * 2)) {
+            writeSnapshot(latestStepRecords, openStepPosition);
+            return;
+        }
+
+        WRITE_EXECUTOR.execute(() -> appendToFile(positions, stepRecords, openStepPosition));
+    }
+
+    /**
+     * Reads the draft from the journal, keeping only the latest record of each step. It should be
+     * called before anything is written to the journal.
+     *
+     * The journal might still be being written by another instance of the form (e.g., the one that
+     * was destroyed because of a configuration change), so this method waits for all the pending
+     * writes to finish before reading it.
+     *
+     * @param numberOfSteps The number of steps of the form.
+     * @return The records of all the steps and the position of the open step, or null if there is
+     * no draft for a form with this number of steps.
+     */
+    Draft read(int numberOfSteps) {
+        Future<Draft> draft = WRITE_EXECUTOR.submit(() -> readFromFile(numberOfSteps));
+        try {
+            return draft.get();
+        } catch (ExecutionException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    private Draft readFromFile(int numberOfSteps) {
+        if (!file.exists()) {
+            return null;
+        }
+
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (input.readInt() != MAGIC_NUMBER
+                    || input.readInt() != FORMAT_VERSION
+                    || input.readInt() != numberOfSteps) {
+                return null;
+            }
+
+            Draft draft = new Draft(numberOfSteps);
+            while (true) {
+                int entryType;
+                try {
+                    entryType = input.readUnsignedByte();
+                } catch (EOFException e) {
+                    break;
+                }
+
+                try {
+                    if (entryType == ENTRY_STEP_RECORD) {
+                        int position = input.readInt();
+                        byte[] stepRecord = new byte[input.readInt()];
+                        input.readFully(stepRecord);
+                        draft.stepRecords[position] = stepRecord;
+                    } else if (entryType == ENTRY_OPEN_STEP) {
+                        draft.openStepPosition = input.readInt();
+                    } else {
+                        break;
+                    }
+                } catch (EOFException e) {
+                    // The last entry was left incomplete, so we just ignore it
+                    break;
+                }
+            }
+
+            for (byte[] stepRecord : draft.stepRecords) {
+                if (stepRecord == null) {
+                    return null;
+                }
+            }
+
+            return draft;
+        } catch (IOException | IndexOutOfBoundsException e) {
+            return null;
+        }
+    }
+
+    void delete() {
+        latestStepRecords = null;
+        numberOfAppendedEntries = 0;
+
+        WRITE_EXECUTOR.execute(file::delete);
+    }
+
+    private void writeSnapshotToFile(byte[][] stepRecords, int openStepPosition) {
+        File temporaryFile = new File(file.getPath() + ".tmp");
+        File directory = file.getParentFile();
+        if (directory != null && !directory.exists()) {
+            directory.mkdirs();
+        }
+
+        try (FileOutputStream fileOutput = new FileOutputStream(temporaryFile)) {
+            DataOutputStream output = new DataOutputStream(new BufferedOutputStream(fileOutput));
+            output.writeInt(MAGIC_NUMBER);
+            output.writeInt(FORMAT_VERSION);
+            output.writeInt(stepRecords.length);
+            for (int i = 0; i < stepRecords.length; i++) {
+                writeStepRecord(output, i, stepRecords[i]);
+            }
+            output.writeByte(ENTRY_OPEN_STEP);
+            output.writeInt(openStepPosition);
+            output.flush();
+            fileOutput.getFD().sync();
+        } catch (IOException e) {
+            temporaryFile.delete();
+            return;
+        }
+
+        if (!temporaryFile.renameTo(file)) {
+            temporaryFile.delete();
+        }
+    }
+
+    private void appendToFile(int[] positions, byte[][] stepRecords, int openStepPosition) {
+        if (!file.exists()) {
+            // The snapshot couldn't be written, so there is nothing to append the records to
+            return;
+        }
+
+        try (FileOutputStream fileOutput = new FileOutputStream(file, true)) {
+            DataOutputStream output = new DataOutputStream(new BufferedOutputStream(fileOutput));
+            for (int i = 0; i < positions.length; i++) {
+                writeStepRecord(output, positions[i], stepRecords[i]);
+            }
+            output.writeByte(ENTRY_OPEN_STEP);
+            output.writeInt(openStepPosition);
+            output.flush();
+        } catch (IOException e) {
+            // The draft will be written again on the next compaction
+        }
+    }
+
+    private void writeStepRecord(DataOutputStream output, int position, byte[] stepRecord) throws IOException {
+        output.writeByte(ENTRY_STEP_RECORD);
+        output.writeInt(position);
+        output.writeInt(stepRecord.length);
+        output.write(stepRecord);
+    }
+
+    /**
+     * The draft as read from the journal.
+     */
+    static class Draft {
+        final byte[][] stepRecords;
+        int openStepPosition;
+
+        private Draft(int numberOfSteps) {
+            this.stepRecords = new byte[numberOfSteps][];
+            this.openStepPosition = 0;
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package ernestoyaquello.com.verticalstepperform;
+
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * This class keeps track of which step is open and which steps are completed, updating this
+ * information incrementally every time a step changes. This way, the form can answer questions
+ * like "which step is open?" or "are all the steps completed?" without going through all its steps.
+ *
+ * It also keeps the position of the first uncompleted step, which acts as a frontier: all the
+ * steps placed before it are completed, so linear navigation checks don't need to look at them.
+ */
+class FormState {
+
+    private BitSet completedSteps;
+    private int numberOfSteps;
+    private int numberOfCompletedSteps;
+    private int firstUncompletedStepPosition;
+    private int openStepPosition;
+
+    FormState() {
+        this.completedSteps = new BitSet();
+        this.openStepPosition = -1;
+    }
+
+    void initialize(List<StepHelper> stepHelpers) {
+        completedSteps.clear();
+        numberOfSteps = stepHelpers.size();
+        numberOfCompletedSteps = 0;
+        openStepPosition = -1;
+
+        for (int i = 0; i < stepHelpers.size(); i++) {
+            Step<?> step = stepHelpers.get(i).getStepInstance();
+            if (step.isCompleted()) {
+                completedSteps.set(i);
+                numberOfCompletedSteps++;
+            }
+            if (step.isOpen() && openStepPosition == -1) {
+                openStepPosition = i;
+            }
+        }
+
+        firstUncompletedStepPosition = completedSteps.nextClearBit(0);
+    }
+
+    int getOpenStepPosition() {
+        return openStepPosition;
+    }
+
+    int getNumberOfSteps() {
+        return numberOfSteps;
+    }
+
+    int getNumberOfCompletedSteps() {
+        return numberOfCompletedSteps;
+    }
+
+    boolean areAllStepsCompleted() {
+        return numberOfCompletedSteps == numberOfSteps;
+    }
+
+    /**
+     * Gets the position of the first step that is not completed.
+     *
+     * @return The position of the first uncompleted step, or the number of steps if all of them
+     * are completed.
+     */
+    int getFirstUncompletedStepPosition() {
+        return firstUncompletedStepPosition;
+    }
+
+    boolean areAllPreviousStepsCompleted(int position) {
+        return position <= firstUncompletedStepPosition;
+    }
+
+    void onStepVisibilityUpdated(int position, boolean open) {
+        if (position < 0 || position >= numberOfSteps) {
+            return;
+        }
+
+        if (open) {
+            openStepPosition = position;
+        } else if (openStepPosition == position) {
+            openStepPosition = -1;
+        }
+    }
+
+    void onStepCompletionStateUpdated(int position, boolean completed) {
+        if (position < 0 || position >= numberOfSteps) {
+            return;
+        }
+
+        if (completedSteps.get(position) != completed) {
+            completedSteps.set(position, completed);
+            numberOfCompletedSteps += completed ? 1 : -1;
+
+            if (!completed && position < firstUncompletedStepPosition) {
+                firstUncompletedStepPosition = position;
+            } else if (completed && position == firstUncompletedStepPosition) {
+                // The frontier only moves forward, so the search starts right after the old one
+                firstUncompletedStepPosition = completedSteps.nextClearBit(position + 1);
+            }
+        }
+    }
+
+    void onStepAdded(int position, boolean open, boolean completed) {
+        // The steps placed after the new one are moved one position forward
+        for (int i = numberOfSteps - 1; i >= position; i--) {
+            completedSteps.set(i + 1, completedSteps.get(i));
+        }
+        completedSteps.clear(position);
+        numberOfSteps++;
+
+        // For now, the new step is considered uncompleted
+        if (position <= firstUncompletedStepPosition) {
+            firstUncompletedStepPosition = position;
+        }
+
+        if (openStepPosition >= position) {
+            openStepPosition++;
+        }
+
+        onStepCompletionStateUpdated(position, completed);
+        if (open) {
+            onStepVisibilityUpdated(position, true);
+        }
+    }
+
+    void onStepRemoved(int position) {
+        if (completedSteps.get(position)) {
+            numberOfCompletedSteps--;
+        }
+
+        // The steps placed after the removed one are moved one position backwards
+        for (int i = position; i < numberOfSteps - 1; i++) {
+            completedSteps.set(i, completedSteps.get(i + 1));
+        }
+        completedSteps.clear(numberOfSteps - 1);
+        numberOfSteps--;
+
+        if (position < firstUncompletedStepPosition) {
+            firstUncompletedStepPosition--;
+        } else if (position == firstUncompletedStepPosition) {
+            firstUncompletedStepPosition = completedSteps.nextClearBit(position);
+        }
+
+        if (openStepPosition == position) {
+            openStepPosition = -1;
+        } else if (openStepPosition > position) {
+            openStepPosition--;
+        }
+    }
+}
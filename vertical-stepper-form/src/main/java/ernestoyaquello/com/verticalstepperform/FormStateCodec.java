@@ -0,0 +1,431 @@
+package ernestoyaquello.com.verticalstepperform;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * This class encodes the state of the form into a compact binary format and decodes it back.
+ *
+ * The state of each step is encoded as a separate, length-prefixed record, so the records can be
+ * produced independently. The data of each step is written with the codec provided by the step,
+ * falling back to Java serialization for the steps that don't provide one. Each record also
+ * identifies the class of its step and of its codec, so it is never decoded by a different step or
+ * codec. Records that cannot be decoded are skipped, and a state that cannot be decoded at all is
+ * ignored, so a restoration never fails because of the saved state.
+ *
+ * The data of the steps can also be spilled into a separate buffer, in which case the record will
+ * only contain the position of the data within that buffer. This is useful to keep large data out
+ * of the saved state.
+ *
+ * The encoded state of each step is kept in the step, so it can be reused the next time as long
+ * as the step hasn't been marked as changed since then and its data is still the same instance as
+ * the encoded one, or an equal one. The steps mark themselves as changed every time their state is
+ * updated, every time they are validated and every time they are notified that their data has
+ * changed, so the steps that mutate their data in place must call notifyStepDataChanged().
+ */
+class FormStateCodec {
+
+    private static final int FORMAT_VERSION = 2;
+
+    private static final int FLAG_COMPLETED = 1;
+    private static final int FLAG_HAS_ERROR = 1 << 1;
+
+    private static final int DATA_NULL = 0;
+    private static final int DATA_CODEC = 1;
+    private static final int DATA_SERIALIZED = 2;
+    private static final int DATA_SPILLED = 3;
+
+    static byte[][] encodeSteps(List<StepHelper> stepHelpers, SpillBuffer spillBuffer) {
+        byte[][] stepRecords = new byte[stepHelpers.size()][];
+        for (int i = 0; i < stepRecords.length; i++) {
+            stepRecords[i] = encodeStep(stepHelpers.get(i).getStepInstance(), spillBuffer);
+        }
+
+        return stepRecords;
+    }
+
+    static byte[] encode(byte[][] stepRecords, String spillToken, int openStepPosition, boolean formCompleted) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream output = new DataOutputStream(bytes);
+            output.writeInt(FORMAT_VERSION);
+            output.writeBoolean(formCompleted);
+            output.writeInt(openStepPosition);
+            writeString(output, spillToken);
+            output.writeInt(stepRecords.length);
+            for (byte[] stepRecord : stepRecords) {
+                output.writeInt(stepRecord.length);
+                output.write(stepRecord);
+            }
+            output.flush();
+
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to encode the state of the form", e);
+        }
+    }
+
+    static byte[] encodeStep(Step<?> step, SpillBuffer spillBuffer) {
+        try {
+            Serializable data = step.getStepDataInternal();
+            EncodedStep encodedStep = step.getEncodedStepInternal();
+            if (encodedStep != null
+                    && isDataUnchanged(encodedStep.data, data)
+                    && (spillBuffer == null || encodedStep.stepDataLength < spillBuffer.minimumSizeInBytes)) {
+                return encodedStep.record;
+            }
+
+            byte[] stepData = encodeStepData(step, data);
+            boolean spillStepData = spillBuffer != null && stepData.length >= spillBuffer.minimumSizeInBytes;
+
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream output = new DataOutputStream(bytes);
+
+            writeString(output, getStepTag(step));
+            writeString(output, getCodecTag(step));
+
+            int flags = (step.isCompleted() ? FLAG_COMPLETED : 0) | (step.hasError() ? FLAG_HAS_ERROR : 0);
+            output.writeByte(flags);
+            writeString(output, step.getTitle());
+            writeString(output, step.getSubtitle());
+            writeString(output, step.getNextButtonText());
+            writeString(output, !step.isCompleted() ? step.getErrorMessage() : null);
+
+            if (spillStepData) {
+                output.writeByte(DATA_SPILLED);
+                output.writeLong(spillBuffer.append(stepData));
+                output.writeInt(stepData.length);
+            } else {
+                output.write(stepData);
+            }
+            output.flush();
+
+            // Records that point to spilled data can't be reused, and keeping their data in memory
+            // would defeat the purpose of spilling it
+            byte[] record = bytes.toByteArray();
+            step.setEncodedStepInternal(!spillStepData ? new EncodedStep(data, stepData.length, record) : null);
+
+            return record;
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to encode the state of the step " + step.getTitle(), e);
+        }
+    }
+
+    static SavedFormState decode(byte[] encodedState, List<StepHelper> stepHelpers, FormStateSpillStore spillStore) {
+        try {
+            DataInputStream input = new DataInputStream(new ByteArrayInputStream(encodedState));
+            int formatVersion = input.readInt();
+            if (formatVersion != FORMAT_VERSION) {
+                // The state was saved by a different version of the library
+                return null;
+            }
+
+            SavedFormState savedState = new SavedFormState();
+            savedState.formCompleted = input.readBoolean();
+            savedState.openStepPosition = input.readInt();
+            savedState.spillToken = readString(input);
+
+            int numberOfSteps = input.readInt();
+            if (numberOfSteps < 0 || numberOfSteps > stepHelpers.size()) {
+                // The saved steps cannot be matched with the ones of the form, so there is nothing
+                // to restore; a form with more steps is fine, though, as the extra ones are new
+                return null;
+            }
+
+            savedState.initialize(numberOfSteps);
+            for (int i = 0; i < numberOfSteps; i++) {
+                // Each record is read from its own buffer, so a step whose codec doesn't read its
+                // data exactly as it was written cannot affect the records of the other steps
+                int recordLength = input.readInt();
+                if (recordLength < 0 || recordLength > input.available()) {
+                    return null;
+                }
+                byte[] record = new byte[recordLength];
+                input.readFully(record);
+
+                Step<?> step = stepHelpers.get(i).getStepInstance();
+                savedState.decodedSteps[i] = decodeStep(record, i, step, savedState, spillStore);
+            }
+
+            return savedState;
+        } catch (IOException e) {
+            // The state is corrupt, so there is nothing that can be restored from it
+            return null;
+        }
+    }
+
+    private static boolean decodeStep(
+            byte[] record,
+            int position,
+            Step<?> step,
+            SavedFormState savedState,
+            FormStateSpillStore spillStore) {
+
+        try {
+            DataInputStream input = new DataInputStream(new ByteArrayInputStream(record));
+            if (!getStepTag(step).equals(readString(input))
+                    || !Objects.equals(getCodecTag(step), readString(input))) {
+                // The record was saved by a different step or codec, so its data cannot be read
+                return false;
+            }
+
+            int flags = input.readUnsignedByte();
+            String title = readString(input);
+            String subtitle = readString(input);
+            String buttonText = readString(input);
+            String errorMessage = readString(input);
+
+            Serializable stepData = null;
+            SpilledStepData spilledStepData = null;
+            int dataType = input.readUnsignedByte();
+            if (dataType == DATA_SPILLED) {
+                if (spillStore == null || savedState.spillToken == null) {
+                    return false;
+                }
+
+                long offset = input.readLong();
+                int length = input.readInt();
+                spilledStepData = new SpilledStepData(spillStore, savedState.spillToken, offset, length);
+            } else {
+                stepData = readStepData(dataType, input, step);
+            }
+
+            // The step is only restored once its whole record has been read successfully
+            savedState.completedSteps[position] = (flags & FLAG_COMPLETED) != 0;
+            savedState.errorSteps[position] = (flags & FLAG_HAS_ERROR) != 0;
+            savedState.titles[position] = title;
+            savedState.subtitles[position] = subtitle;
+            savedState.buttonTexts[position] = buttonText;
+            savedState.errorMessages[position] = errorMessage;
+            savedState.stepsData[position] = stepData;
+            savedState.spilledStepsData[position] = spilledStepData;
+
+            return true;
+        } catch (IOException | ClassNotFoundException | RuntimeException e) {
+            // The codec of the step, or the classes of its data, changed in an incompatible way
+            return false;
+        }
+    }
+
+    private static String getStepTag(Step<?> step) {
+        return step.getClass().getName();
+    }
+
+    private static String getCodecTag(Step<?> step) {
+        StepDataCodec<?> codec = step.getStepDataCodec();
+        return codec != null ? codec.getClass().getName() : null;
+    }
+
+    private static boolean isDataUnchanged(Serializable encodedData, Serializable data) {
+        // The record is discarded whenever the step is marked as changed, so the data only has to
+        // be compared in case the step returns new data without having been notified about it
+        return data == encodedData || (data != null && data.equals(encodedData));
+    }
+
+    private static byte[] encodeStepData(Step<?> step, Serializable data) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream output = new DataOutputStream(bytes);
+        writeStepData(output, step, data);
+        output.flush();
+
+        return bytes.toByteArray();
+    }
+
+    private static Serializable decodeStepData(byte[] stepData, Step<?> step) throws IOException {
+        try {
+            DataInputStream input = new DataInputStream(new ByteArrayInputStream(stepData));
+            return readStepData(input.readUnsignedByte(), input, step);
+        } catch (ClassNotFoundException | RuntimeException e) {
+            throw new IOException(e);
+        }
+    }
+
+    private static <T extends Serializable> void writeStepData(DataOutput output, Step<T> step, Serializable data)
+            throws IOException {
+
+        StepDataCodec<T> codec = step.getStepDataCodec();
+
+        if (data == null) {
+            output.writeByte(DATA_NULL);
+        } else if (codec != null) {
+            output.writeByte(DATA_CODEC);
+            codec.writeStepData((T) data, output);
+        } else {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            ObjectOutputStream objectOutput = new ObjectOutputStream(bytes);
+            objectOutput.writeObject(data);
+            objectOutput.close();
+
+            output.writeByte(DATA_SERIALIZED);
+            output.writeInt(bytes.size());
+            output.write(bytes.toByteArray());
+        }
+    }
+
+    private static <T extends Serializable> Serializable readStepData(int dataType, DataInputStream input, Step<T> step)
+            throws IOException, ClassNotFoundException {
+
+        switch (dataType) {
+            case DATA_NULL:
+                return null;
+            case DATA_CODEC:
+                StepDataCodec<T> codec = step.getStepDataCodec();
+                if (codec == null) {
+                    throw new IOException("The step " + step.getTitle() + " no longer provides a codec");
+                }
+                return codec.readStepData(input);
+            case DATA_SERIALIZED:
+                byte[] bytes = new byte[readLength(input)];
+                input.readFully(bytes);
+                ObjectInputStream objectInput = new ObjectInputStream(new ByteArrayInputStream(bytes));
+                return (Serializable) objectInput.readObject();
+            default:
+                throw new IOException("Unknown data type: " + dataType);
+        }
+    }
+
+    private static void writeString(DataOutput output, String value) throws IOException {
+        if (value == null) {
+            output.writeInt(-1);
+        } else {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            output.writeInt(bytes.length);
+            output.write(bytes);
+        }
+    }
+
+    private static String readString(DataInputStream input) throws IOException {
+        int length = input.readInt();
+        if (length < 0) {
+            return null;
+        }
+
+        byte[] bytes = new byte[checkLength(input, length)];
+        input.readFully(bytes);
+
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int readLength(DataInputStream input) throws IOException {
+        return checkLength(input, input.readInt());
+    }
+
+    private static int checkLength(DataInputStream input, int length) throws IOException {
+        // The input is always read from memory, so a corrupt length is detected before allocating
+        // a buffer for it
+        if (length < 0 || length > input.available()) {
+            throw new IOException("Invalid length: " + length);
+        }
+
+        return length;
+    }
+
+    /**
+     * Buffer where the data of the steps is spilled when it is at least of a certain size.
+     */
+    static class SpillBuffer {
+
+        private final int minimumSizeInBytes;
+        private final ByteArrayOutputStream content;
+
+        SpillBuffer(int minimumSizeInBytes) {
+            this.minimumSizeInBytes = minimumSizeInBytes;
+            this.content = new ByteArrayOutputStream();
+        }
+
+        boolean isEmpty() {
+            return content.size() == 0;
+        }
+
+        byte[] toByteArray() {
+            return content.toByteArray();
+        }
+
+        private long append(byte[] stepData) {
+            long offset = content.size();
+            content.write(stepData, 0, stepData.length);
+
+            return offset;
+        }
+    }
+
+    /**
+     * Reference to the data of a step that was spilled into a file. The data is only read from the
+     * file when it is actually needed.
+     */
+    static class SpilledStepData {
+
+        private final FormStateSpillStore spillStore;
+        private final String token;
+        private final long offset;
+        private final int length;
+
+        private SpilledStepData(FormStateSpillStore spillStore, String token, long offset, int length) {
+            this.spillStore = spillStore;
+            this.token = token;
+            this.offset = offset;
+            this.length = length;
+        }
+
+        Serializable load(Step<?> step) throws IOException {
+            return decodeStepData(spillStore.read(token, offset, length), step);
+        }
+    }
+
+    /**
+     * The encoded record of a step, along with the data it was encoded from. It is discarded by the
+     * step as soon as the step is marked as changed.
+     */
+    static class EncodedStep {
+
+        private final Serializable data;
+        private final int stepDataLength;
+        private final byte[] record;
+
+        private EncodedStep(Serializable data, int stepDataLength, byte[] record) {
+            this.data = data;
+            this.stepDataLength = stepDataLength;
+            this.record = record;
+        }
+    }
+
+    /**
+     * The decoded state of the form.
+     */
+    static class SavedFormState {
+        Serializable[] stepsData;
+        SpilledStepData[] spilledStepsData;
+        String spillToken;
+        int openStepPosition;
+        boolean[] completedSteps;
+        boolean[] errorSteps;
+        String[] titles;
+        String[] subtitles;
+        String[] buttonTexts;
+        String[] errorMessages;
+        boolean[] decodedSteps;
+        boolean formCompleted;
+
+        private void initialize(int numberOfSteps) {
+            decodedSteps = new boolean[numberOfSteps];
+            stepsData = new Serializable[numberOfSteps];
+            spilledStepsData = new SpilledStepData[numberOfSteps];
+            completedSteps = new boolean[numberOfSteps];
+            errorSteps = new boolean[numberOfSteps];
+            titles = new String[numberOfSteps];
+            subtitles = new String[numberOfSteps];
+            buttonTexts = new String[numberOfSteps];
+            errorMessages = new String[numberOfSteps];
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package ernestoyaquello.com.verticalstepperform;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+
+/**
+ * This class stores in files the step data that is too large to be kept in the saved state of the
+ * form. Each saved state gets its own file, which is identified by a token that is small enough to
+ * be kept in the saved state instead of the data.
+ *
+ * Since there is no guarantee that a saved state will ever be restored, the files that are older
+ * than a certain age are considered stale and deleted from time to time.
+ *
+ * All the changes to the files are performed in order on a background thread, so the main thread
+ * never waits for the disk while the state is being saved. Reading a file waits for its write to
+ * finish, so a file can be read right after writing it. Apart from the constructor, the methods of
+ * this class must be called from the same thread (usually, the main thread).
+ */
+class FormStateSpillStore {
+
+    static final long DEFAULT_MAX_FILE_AGE_MILLIS = 3 * 24 * 60 * 60 * 1000L;
+
+    private static final long CLEANUP_INTERVAL_MILLIS = 60 * 60 * 1000L;
+    private static final String FILE_EXTENSION = ".state";
+    private static final String TEMPORARY_FILE_EXTENSION = ".tmp";
+
+    private static final ExecutorService WRITE_EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "VerticalStepperFormStateSpillStore");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final File directory;
+    private final long maxFileAgeMillis;
+    private final Executor executor;
+    private final Map<String, FutureTask<Void>> pendingWrites;
+    private long lastCleanupTime;
+
+    FormStateSpillStore(File directory) {
+        this(directory, DEFAULT_MAX_FILE_AGE_MILLIS, WRITE_EXECUTOR);
+    }
+
+    FormStateSpillStore(File directory, long maxFileAgeMillis, Executor executor) {
+        this.directory = directory;
+        this.maxFileAgeMillis = maxFileAgeMillis;
+        this.executor = executor;
+        this.pendingWrites = new HashMap<>();
+        this.lastCleanupTime = -1;
+    }
+
+    /**
+     * Writes the specified content into a new file. The file is written in the background, so if it
+     * cannot be written, the error will only be noticed when trying to read it.
+     *
+     * @param content The content to write.
+     * @return The token that identifies the file.
+     */
+    String write(byte[] content) {
+        removeFinishedWrites();
+
+        String token = UUID.randomUUID().toString();
+        FutureTask<Void> writeTask = new FutureTask<>(() -> {
+            writeFile(token, content);
+            return null;
+        });
+        pendingWrites.put(token, writeTask);
+        executor.execute(writeTask);
+
+        return token;
+    }
+
+    /**
+     * Reads a fragment of the content of the file identified by the specified token, waiting for
+     * the file to be written if necessary.
+     *
+     * @param token The token of the file.
+     * @param offset The position of the first byte to read.
+     * @param length The number of bytes to read.
+     * @return The bytes that were read.
+     * @throws IOException If the file doesn't exist or cannot be read.
+     */
+    byte[] read(String token, long offset, int length) throws IOException {
+        waitForWrite(token);
+
+        try (RandomAccessFile file = new RandomAccessFile(getFile(token), "r")) {
+            byte[] content = new byte[length];
+            file.seek(offset);
+            file.readFully(content);
+
+            return content;
+        }
+    }
+
+    void delete(String token) {
+        pendingWrites.remove(token);
+        executor.execute(() -> getFile(token).delete());
+    }
+
+    /**
+     * Marks the file identified by the specified token as recently used, so it won't be considered
+     * stale until it reaches the maximum age again. It should be called when a saved state that
+     * points to the file is restored, since the file might have been written long ago.
+     *
+     * @param token The token of the file.
+     * @param now The current time in milliseconds.
+     */
+    void keep(String token, long now) {
+        executor.execute(() -> getFile(token).setLastModified(now));
+    }
+
+    /**
+     * Deletes the stale files in the background, but only if they haven't been deleted recently.
+     *
+     * @param now The current time in milliseconds.
+     * @param tokensInUse The tokens of the files that must be kept no matter how old they are.
+     */
+    void deleteStaleFilesIfNecessary(long now, String... tokensInUse) {
+        if (lastCleanupTime == -1 || now - lastCleanupTime >= CLEANUP_INTERVAL_MILLIS) {
+            lastCleanupTime = now;
+
+            List<String> excludedTokens = Arrays.asList(tokensInUse);
+            executor.execute(() -> deleteStaleFiles(now, excludedTokens));
+        }
+    }
+
+    /**
+     * Deletes the files that are older than the maximum age, as well as the temporary files that
+     * might have been left behind by writes that never finished.
+     *
+     * @param now The current time in milliseconds.
+     * @param tokensInUse The tokens of the files that must be kept no matter how old they are.
+     * @return The number of deleted files.
+     */
+    int deleteStaleFiles(long now, List<String> tokensInUse) {
+        File[] files = directory.listFiles();
+        if (files == null) {
+            return 0;
+        }
+
+        int numberOfDeletedFiles = 0;
+        for (File file : files) {
+            String name = file.getName();
+            long age = now - file.lastModified();
+            boolean isInUse = name.endsWith(FILE_EXTENSION)
+                    && tokensInUse.contains(name.substring(0, name.length() - FILE_EXTENSION.length()));
+            boolean isStale = (name.endsWith(FILE_EXTENSION) && age > maxFileAgeMillis && !isInUse)
+                    || (name.endsWith(TEMPORARY_FILE_EXTENSION) && age > CLEANUP_INTERVAL_MILLIS);
+            if (isStale && file.delete()) {
+                numberOfDeletedFiles++;
+            }
+        }
+
+        return numberOfDeletedFiles;
+    }
+
+    private void writeFile(String token, byte[] content) throws IOException {
+        if (!directory.exists() && !directory.mkdirs()) {
+            throw new IOException("Unable to create the directory " + directory);
+        }
+
+        // The content is written into a temporary file first, so a file is never left half-written
+        File temporaryFile = new File(directory, token + TEMPORARY_FILE_EXTENSION);
+        try (FileOutputStream output = new FileOutputStream(temporaryFile)) {
+            output.write(content);
+            output.getFD().sync();
+        }
+
+        if (!temporaryFile.renameTo(getFile(token))) {
+            temporaryFile.delete();
+            throw new IOException("Unable to write the file for the token " + token);
+        }
+    }
+
+    private void waitForWrite(String token) throws IOException {
+        FutureTask<Void> writeTask = pendingWrites.remove(token);
+        if (writeTask == null) {
+            return;
+        }
+
+        try {
+            writeTask.get();
+        } catch (ExecutionException e) {
+            throw new IOException("Unable to write the file for the token " + token, e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for the file of the token " + token, e);
+        }
+    }
+
+    private void removeFinishedWrites() {
+        Iterator<FutureTask<Void>> iterator = pendingWrites.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().isDone()) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private File getFile(String token) {
+        return new File(directory, token + FILE_EXTENSION);
+    }
+}
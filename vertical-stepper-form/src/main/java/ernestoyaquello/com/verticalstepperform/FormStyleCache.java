@@ -0,0 +1,109 @@
+package ernestoyaquello.com.verticalstepperform;
+
+import android.content.Context;
+import android.content.res.ColorStateList;
+import android.graphics.PorterDuff;
+import android.graphics.PorterDuffColorFilter;
+import android.graphics.drawable.Drawable;
+import android.util.LongSparseArray;
+import android.util.SparseArray;
+
+import androidx.core.content.ContextCompat;
+
+import ernestoyaquello.com.verticalstepperform.VerticalStepperFormView.FormStyle;
+
+/**
+ * This class holds the resources that are derived from the style of the form, so they are created
+ * only once and shared by all the steps instead of being created again every time a step is set up
+ * or updated.
+ *
+ * The cached drawables and color state lists are shared by several views at the same time, so they
+ * must never be modified. This is safe for the drawables because they are plain shapes that all the
+ * steps draw at the same size, and color state lists are immutable.
+ */
+class FormStyleCache {
+
+    private static final int[][] BUTTON_STATES = new int[][]{
+            new int[]{android.R.attr.state_pressed},
+            new int[]{android.R.attr.state_focused},
+            new int[]{}
+    };
+
+    private final Context context;
+    private final SparseArray<Drawable> stepCircleDrawables;
+    private final SparseArray<Drawable> stepDoneIconDrawables;
+    private final LongSparseArray<ColorStateList> buttonColorStateLists;
+
+    FormStyleCache(Context context, FormStyle style) {
+        this.context = context;
+        this.stepCircleDrawables = new SparseArray<>();
+        this.stepDoneIconDrawables = new SparseArray<>();
+        this.buttonColorStateLists = new LongSparseArray<>();
+
+        // The circles of all the possible states are created in advance
+        getStepCircleDrawable(style.stepNumberBackgroundColor);
+        getStepCircleDrawable(style.stepNumberCompletedBackgroundColor);
+        getStepCircleDrawable(style.stepNumberErrorBackgroundColor);
+        getStepCircleDrawable(style.backgroundColorOfDisabledElements);
+
+        // And so are the colors of the buttons, both when they are enabled and when they are not
+        getButtonColorStateList(style.nextButtonBackgroundColor, style.nextButtonPressedBackgroundColor);
+        getButtonColorStateList(style.nextButtonTextColor, style.nextButtonPressedTextColor);
+        getButtonColorStateList(style.lastStepCancelButtonBackgroundColor, style.lastStepCancelButtonPressedBackgroundColor);
+        getButtonColorStateList(style.lastStepCancelButtonTextColor, style.lastStepCancelButtonPressedTextColor);
+        getButtonColorStateList(style.backgroundColorOfDisabledElements, style.backgroundColorOfDisabledElements);
+    }
+
+    /**
+     * Gets the drawable of the circle of the step number tinted with the specified color.
+     *
+     * @param color The color of the circle.
+     * @return The shared drawable of the circle.
+     */
+    Drawable getStepCircleDrawable(int color) {
+        Drawable circleDrawable = stepCircleDrawables.get(color);
+        if (circleDrawable == null) {
+            circleDrawable = ContextCompat.getDrawable(context, R.drawable.circle_step_done).mutate();
+            circleDrawable.setColorFilter(new PorterDuffColorFilter(color, PorterDuff.Mode.SRC_IN));
+            stepCircleDrawables.put(color, circleDrawable);
+        }
+
+        return circleDrawable;
+    }
+
+    /**
+     * Gets the drawable of the done icon tinted with the specified color. Since it is shared, its
+     * bounds and alpha must be set every time before drawing it.
+     *
+     * @param color The color of the icon.
+     * @return The shared drawable of the icon.
+     */
+    Drawable getStepDoneIconDrawable(int color) {
+        Drawable doneIconDrawable = stepDoneIconDrawables.get(color);
+        if (doneIconDrawable == null) {
+            doneIconDrawable = ContextCompat.getDrawable(context, R.drawable.ic_done).mutate();
+            doneIconDrawable.setColorFilter(new PorterDuffColorFilter(color, PorterDuff.Mode.SRC_ATOP));
+            stepDoneIconDrawables.put(color, doneIconDrawable);
+        }
+
+        return doneIconDrawable;
+    }
+
+    /**
+     * Gets the color state list of a button that has the specified colors.
+     *
+     * @param color The color of the button when it is not pressed.
+     * @param pressedColor The color of the button when it is pressed or focused.
+     * @return The shared color state list.
+     */
+    ColorStateList getButtonColorStateList(int color, int pressedColor) {
+        long key = ((long) color << 32) | (pressedColor & 0xFFFFFFFFL);
+        ColorStateList colorStateList = buttonColorStateLists.get(key);
+        if (colorStateList == null) {
+            colorStateList = new ColorStateList(BUTTON_STATES, new int[]{pressedColor, pressedColor, color});
+            buttonColorStateLists.put(key, colorStateList);
+        }
+
+        return colorStateList;
+    }
+}
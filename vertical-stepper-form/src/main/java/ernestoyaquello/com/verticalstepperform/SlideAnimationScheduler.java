@@ -0,0 +1,532 @@
+package ernestoyaquello.com.verticalstepperform;
+
+import android.animation.Animator;
+import android.animation.AnimatorListenerAdapter;
+import android.animation.ValueAnimator;
+import android.graphics.Rect;
+import android.os.SystemClock;
+import android.view.Choreographer;
+import android.view.Display;
+import android.view.View;
+import android.view.ViewGroup;
+import android.view.ViewParent;
+import android.view.ViewTreeObserver;
+import android.widget.ScrollView;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import androidx.core.view.ViewCompat;
+import androidx.recyclerview.widget.RecyclerView;
+
+import ernestoyaquello.com.verticalstepperform.VerticalStepperFormView.FormStyle;
+
+/**
+ * This class performs the slide animations used to expand and collapse the views of the steps.
+ *
+ * The animations requested before the next frame (e.g., the ones of the step that gets opened and
+ * the ones of the step that gets closed) are merged into a single transition that is driven by
+ * one animator, so all the views move in sync and the form is laid out only once per frame. To
+ * keep the transitions smooth, only a limited number of views are animated at the same time, and
+ * the rest of them are updated instantly. Besides, if the frames of a transition take too long to
+ * be rendered, the transition is finished right away and the following ones are performed
+ * instantly for a while.
+ *
+ * When the animations are transform-based, the views get their final height as soon as they start
+ * sliding, and the views placed below them are translated to where they would be if the height of
+ * the sliding views were actually changing. These translations are updated right before drawing
+ * each frame, once the layout pass has been performed, and they are removed as soon as the views
+ * stop sliding.
+ */
+class SlideAnimationScheduler implements Choreographer.FrameCallback, ViewTreeObserver.OnPreDrawListener {
+
+    private static final long MIN_DURATION_MILLIS = 150;
+    private static final float DEFAULT_REFRESH_RATE = 60f;
+    private static final int MAX_SLOW_FRAMES_PER_TRANSITION = 3;
+    private static final long INSTANT_TRANSITIONS_PERIOD_MILLIS = 2000;
+
+    private final FormStyle style;
+    private final List<ViewSlide> pendingSlides;
+    private final List<Transition> runningTransitions;
+    private Map<View, Float> translatedViews;
+    private Map<View, Float> newTranslatedViews;
+    private ViewTreeObserver observedViewTreeObserver;
+    private boolean frameCallbackPosted;
+    private long instantTransitionsEndTime;
+
+    SlideAnimationScheduler(FormStyle style) {
+        this.style = style;
+        this.pendingSlides = new ArrayList<>();
+        this.runningTransitions = new ArrayList<>();
+        this.translatedViews = new HashMap<>();
+        this.newTranslatedViews = new HashMap<>();
+    }
+
+    void slideDownIfNecessary(View view, boolean animate) {
+        slide(view, false, animate);
+    }
+
+    void slideUpIfNecessary(View view, boolean animate) {
+        slide(view, true, animate);
+    }
+
+    /**
+     * Finishes the slide animation of the view, if any, leaving the view in its final state.
+     */
+    void finishSlide(View view) {
+        ViewSlide slide = getSlide(view);
+        if (slide != null) {
+            removeSlide(slide);
+            onSlidingFinished(view, slide.slideUp);
+        }
+    }
+
+    /**
+     * Finishes all the pending and running slide animations at once, leaving the views in their
+     * final state.
+     */
+    void finishAll() {
+        removeFrameCallback();
+
+        List<ViewSlide> slidesToFinish = new ArrayList<>(pendingSlides);
+        pendingSlides.clear();
+        for (ViewSlide slide : slidesToFinish) {
+            finishSlideInstantly(slide);
+        }
+
+        List<Transition> transitionsToFinish = new ArrayList<>(runningTransitions);
+        for (Transition transition : transitionsToFinish) {
+            transition.animator.cancel();
+        }
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        frameCallbackPosted = false;
+        startPendingSlides();
+    }
+
+    @Override
+    public boolean onPreDraw() {
+        // The views have just been laid out, so their translations can be calculated accurately
+        updateTranslations();
+        return true;
+    }
+
+    private void slide(View view, boolean slideUp, boolean animate) {
+        ViewSlide previousSlide = getSlide(view);
+        if (!animate || SystemClock.uptimeMillis() < instantTransitionsEndTime) {
+            if (previousSlide != null) {
+                removeSlide(previousSlide);
+            }
+            onSlidingFinished(view, slideUp);
+
+            return;
+        }
+
+        float initialValue;
+        if (previousSlide != null) {
+            if (previousSlide.slideUp == slideUp) {
+                // The view is already sliding in this direction
+                return;
+            }
+
+            // The new animation will start where the previous one is
+            initialValue = previousSlide.currentValue;
+            removeSlide(previousSlide);
+        } else {
+            boolean isExpanded = view.getVisibility() == View.VISIBLE && view.getLayoutParams().height != 0;
+            initialValue = isExpanded ? 1 : 0;
+        }
+
+        ViewSlide slide = new ViewSlide(
+                view,
+                slideUp,
+                initialValue,
+                style.useTransformBasedSlideAnimations,
+                style.useHardwareLayersInSlideAnimations);
+        view.setTag(R.id.vertical_stepper_form_running_slide, slide);
+        pendingSlides.add(slide);
+
+        if (!frameCallbackPosted) {
+            frameCallbackPosted = true;
+            Choreographer.getInstance().postFrameCallback(this);
+        }
+    }
+
+    private void startPendingSlides() {
+        List<ViewSlide> slidesToStart = new ArrayList<>(pendingSlides);
+        pendingSlides.clear();
+
+        List<ViewSlide> slidesToAnimate = new ArrayList<>();
+        for (ViewSlide slide : slidesToStart) {
+            slide.measure();
+            if (slide.needsAnimation()) {
+                slidesToAnimate.add(slide);
+            } else {
+                finishSlideInstantly(slide);
+            }
+        }
+
+        // When there are too many views to animate, the biggest ones are the ones that get animated
+        int numberOfAnimatedViews = slidesToAnimate.size();
+        if (style.maxConcurrentSlideAnimations >= 0) {
+            int numberOfRunningSlides = 0;
+            for (Transition transition : runningTransitions) {
+                numberOfRunningSlides += transition.slides.size();
+            }
+            int availableSlides = Math.max(0, style.maxConcurrentSlideAnimations - numberOfRunningSlides);
+            numberOfAnimatedViews = Math.min(numberOfAnimatedViews, availableSlides);
+        }
+        Collections.sort(slidesToAnimate, (slide1, slide2) -> slide2.expandedHeight - slide1.expandedHeight);
+        for (int i = numberOfAnimatedViews; i < slidesToAnimate.size(); i++) {
+            finishSlideInstantly(slidesToAnimate.get(i));
+        }
+
+        if (numberOfAnimatedViews > 0) {
+            Transition transition = new Transition(new ArrayList<>(slidesToAnimate.subList(0, numberOfAnimatedViews)));
+            runningTransitions.add(transition);
+            transition.start();
+        }
+    }
+
+    private void removeSlide(ViewSlide slide) {
+        if (slide.transition != null) {
+            slide.transition.removeSlide(slide);
+        } else {
+            pendingSlides.remove(slide);
+        }
+        clearSlide(slide);
+    }
+
+    private void finishSlideInstantly(ViewSlide slide) {
+        clearSlide(slide);
+        onSlidingFinished(slide.view, slide.slideUp);
+    }
+
+    private void onTransitionTooSlow() {
+        instantTransitionsEndTime = SystemClock.uptimeMillis() + INSTANT_TRANSITIONS_PERIOD_MILLIS;
+    }
+
+    private void updateTranslations() {
+        boolean translationsNeeded = false;
+        for (Transition transition : runningTransitions) {
+            for (ViewSlide slide : transition.slides) {
+                if (slide.useTransformAnimation) {
+                    translationsNeeded = true;
+                    addTranslation(slide.view, slide.translationY);
+                    translateFollowingViews(slide.view, slide.getVisibleHeight() - slide.view.getHeight());
+                }
+            }
+        }
+
+        for (Map.Entry<View, Float> translatedView : translatedViews.entrySet()) {
+            if (!newTranslatedViews.containsKey(translatedView.getKey())) {
+                translatedView.getKey().setTranslationY(0);
+            }
+        }
+        for (Map.Entry<View, Float> translatedView : newTranslatedViews.entrySet()) {
+            translatedView.getKey().setTranslationY(translatedView.getValue());
+        }
+
+        Map<View, Float> previousTranslatedViews = translatedViews;
+        translatedViews = newTranslatedViews;
+        newTranslatedViews = previousTranslatedViews;
+        newTranslatedViews.clear();
+
+        if (!translationsNeeded) {
+            stopObservingPreDraw();
+        }
+    }
+
+    private void translateFollowingViews(View view, int offset) {
+        if (offset == 0) {
+            return;
+        }
+
+        // The views that follow the sliding one are the ones below it in each of its ancestors, up
+        // to the scrolling container, as the rest of the views of the screen must remain in place
+        View child = view;
+        ViewParent parent = view.getParent();
+        while (parent instanceof ViewGroup && !(parent instanceof ScrollView) && !(parent instanceof RecyclerView)) {
+            ViewGroup group = (ViewGroup) parent;
+            for (int i = group.indexOfChild(child) + 1; i < group.getChildCount(); i++) {
+                View sibling = group.getChildAt(i);
+                if (sibling.getVisibility() != View.GONE && sibling.getTop() >= child.getBottom()) {
+                    addTranslation(sibling, offset);
+                }
+            }
+
+            child = group;
+            parent = group.getParent();
+        }
+    }
+
+    private void addTranslation(View view, float translation) {
+        Float currentTranslation = newTranslatedViews.get(view);
+        newTranslatedViews.put(view, currentTranslation != null ? currentTranslation + translation : translation);
+    }
+
+    private void observePreDraw(View view) {
+        if (observedViewTreeObserver == null || !observedViewTreeObserver.isAlive()) {
+            observedViewTreeObserver = view.getViewTreeObserver();
+            observedViewTreeObserver.addOnPreDrawListener(this);
+        }
+    }
+
+    private void stopObservingPreDraw() {
+        if (observedViewTreeObserver != null) {
+            if (observedViewTreeObserver.isAlive()) {
+                observedViewTreeObserver.removeOnPreDrawListener(this);
+            }
+            observedViewTreeObserver = null;
+        }
+    }
+
+    private void removeFrameCallback() {
+        if (frameCallbackPosted) {
+            frameCallbackPosted = false;
+            Choreographer.getInstance().removeFrameCallback(this);
+        }
+    }
+
+    private static ViewSlide getSlide(View view) {
+        // The slide is kept in the view itself, so no static state references the view
+        return (ViewSlide) view.getTag(R.id.vertical_stepper_form_running_slide);
+    }
+
+    private static void clearSlide(ViewSlide slide) {
+        if (getSlide(slide.view) == slide) {
+            slide.view.setTag(R.id.vertical_stepper_form_running_slide, null);
+        }
+    }
+
+    private static void onSlidingFinished(View view, boolean slideUp) {
+        setViewHeight(view, slideUp ? 0 : ViewGroup.LayoutParams.WRAP_CONTENT);
+        view.setAlpha(slideUp ? 0f : 1f);
+        view.setVisibility(slideUp ? View.GONE : View.VISIBLE);
+    }
+
+    private static void setViewHeight(View view, int newHeight) {
+        ViewGroup.LayoutParams layoutParams = view.getLayoutParams();
+        layoutParams.height = newHeight;
+        view.setLayoutParams(layoutParams);
+    }
+
+    private static int getAvailableWidth(View view) {
+        if (view.getWidth() > 0) {
+            return view.getWidth();
+        }
+
+        if (view.getParent() instanceof View) {
+            View parent = (View) view.getParent();
+            return Math.max(0, parent.getWidth() - parent.getPaddingLeft() - parent.getPaddingRight());
+        }
+
+        return 0;
+    }
+
+    /**
+     * The slide animation of a single view.
+     */
+    private static class ViewSlide {
+
+        private final View view;
+        private final boolean slideUp;
+        private final float initialValue;
+        private final float finalValue;
+        private final boolean useTransformAnimation;
+        private final boolean useHardwareLayer;
+        private final Rect clipBounds;
+        private float currentValue;
+        private float translationY;
+        private int width;
+        private int expandedHeight;
+        private int previousLayerType;
+        private Transition transition;
+
+        ViewSlide(
+                View view,
+                boolean slideUp,
+                float initialValue,
+                boolean useTransformAnimation,
+                boolean useHardwareLayer) {
+
+            this.view = view;
+            this.slideUp = slideUp;
+            this.initialValue = initialValue > 1 ? 1 : initialValue;
+            this.finalValue = slideUp ? 0 : 1;
+            this.useTransformAnimation = useTransformAnimation;
+            this.useHardwareLayer = useHardwareLayer && useTransformAnimation;
+            this.clipBounds = new Rect();
+            this.currentValue = this.initialValue;
+        }
+
+        void measure() {
+            width = getAvailableWidth(view);
+            expandedHeight = width > 0 ? ExpandedHeightCache.getExpandedHeight(view, width) : 0;
+        }
+
+        boolean needsAnimation() {
+            return initialValue != finalValue && expandedHeight > 0 && width > 0;
+        }
+
+        long getDurationMillis() {
+            float density = view.getContext().getResources().getDisplayMetrics().density;
+            long durationMillis = ((int) (expandedHeight * Math.abs(finalValue - initialValue) / density)) * 2;
+
+            return durationMillis < MIN_DURATION_MILLIS ? MIN_DURATION_MILLIS : durationMillis;
+        }
+
+        void begin() {
+            if (useTransformAnimation) {
+                // The view gets its final height right away, so the only layout pass happens now;
+                // the views below it are translated until it finishes sliding, so they don't jump
+                applyValue(initialValue);
+                if (view.getLayoutParams().height != ViewGroup.LayoutParams.WRAP_CONTENT) {
+                    setViewHeight(view, ViewGroup.LayoutParams.WRAP_CONTENT);
+                }
+                previousLayerType = view.getLayerType();
+                if (useHardwareLayer) {
+                    view.setLayerType(View.LAYER_TYPE_HARDWARE, null);
+                }
+            } else {
+                applyValue(initialValue);
+            }
+            view.setVisibility(View.VISIBLE);
+        }
+
+        void update(float progress) {
+            applyValue(initialValue + (finalValue - initialValue) * progress);
+        }
+
+        void reset() {
+            if (useTransformAnimation) {
+                if (useHardwareLayer) {
+                    view.setLayerType(previousLayerType, null);
+                }
+                ViewCompat.setClipBounds(view, null);
+                view.setTranslationY(0);
+                translationY = 0;
+            }
+        }
+
+        int getVisibleHeight() {
+            return (int) (expandedHeight * currentValue);
+        }
+
+        private void applyValue(float value) {
+            currentValue = value;
+
+            int visibleHeight = getVisibleHeight();
+            if (useTransformAnimation) {
+                // The view is moved up and clipped so only its bottom part is shown where its top
+                // would be, which means that its height doesn't need to change
+                int hiddenHeight = expandedHeight - visibleHeight;
+                clipBounds.set(0, hiddenHeight, width, expandedHeight);
+                ViewCompat.setClipBounds(view, clipBounds);
+                translationY = -hiddenHeight;
+                view.setTranslationY(translationY);
+            } else {
+                setViewHeight(view, visibleHeight);
+            }
+            view.setAlpha(value);
+        }
+    }
+
+    /**
+     * A group of slide animations that are performed in sync by the same animator.
+     */
+    private class Transition extends AnimatorListenerAdapter implements ValueAnimator.AnimatorUpdateListener {
+
+        private final List<ViewSlide> slides;
+        private final ValueAnimator animator;
+        private final long maxFrameIntervalNanos;
+        private long lastFrameTimeNanos;
+        private int numberOfSlowFrames;
+        private boolean endedForBeingTooSlow;
+
+        Transition(List<ViewSlide> slides) {
+            this.slides = slides;
+            this.animator = ValueAnimator.ofFloat(0, 1);
+            this.lastFrameTimeNanos = -1;
+
+            // A frame is considered slow when it takes at least as long as two frames should
+            Display display = ViewCompat.getDisplay(slides.get(0).view);
+            float refreshRate = display != null && display.getRefreshRate() > 0
+                    ? display.getRefreshRate()
+                    : DEFAULT_REFRESH_RATE;
+            this.maxFrameIntervalNanos = (long) (2 * 1_000_000_000L / refreshRate);
+        }
+
+        void start() {
+            long durationMillis = 0;
+            for (ViewSlide slide : slides) {
+                slide.transition = this;
+                slide.begin();
+                durationMillis = Math.max(durationMillis, slide.getDurationMillis());
+                if (slide.useTransformAnimation) {
+                    observePreDraw(slide.view);
+                }
+            }
+
+            animator.setDuration(durationMillis);
+            animator.addUpdateListener(this);
+            animator.addListener(this);
+            animator.start();
+        }
+
+        void removeSlide(ViewSlide slide) {
+            slides.remove(slide);
+            slide.transition = null;
+            slide.reset();
+
+            if (slides.isEmpty()) {
+                animator.cancel();
+            }
+        }
+
+        @Override
+        public void onAnimationUpdate(ValueAnimator valueAnimator) {
+            float progress = (float) valueAnimator.getAnimatedValue();
+            for (ViewSlide slide : slides) {
+                slide.update(progress);
+            }
+
+            long frameTimeNanos = System.nanoTime();
+            if (lastFrameTimeNanos != -1 && frameTimeNanos - lastFrameTimeNanos >= maxFrameIntervalNanos) {
+                numberOfSlowFrames++;
+            }
+            lastFrameTimeNanos = frameTimeNanos;
+
+            if (numberOfSlowFrames >= MAX_SLOW_FRAMES_PER_TRANSITION && !endedForBeingTooSlow) {
+                // The frames are taking too long to render, so the transition is finished now
+                endedForBeingTooSlow = true;
+                onTransitionTooSlow();
+                valueAnimator.end();
+            }
+        }
+
+        @Override
+        public void onAnimationEnd(Animator animation) {
+            super.onAnimationEnd(animation);
+
+            runningTransitions.remove(this);
+
+            List<ViewSlide> slidesToFinish = new ArrayList<>(slides);
+            slides.clear();
+            for (ViewSlide slide : slidesToFinish) {
+                slide.transition = null;
+                slide.reset();
+                finishSlideInstantly(slide);
+            }
+
+            // The views that were following the finished slides must go back to their place in the
+            // same frame in which the slides get their final height
+            updateTranslations();
+        }
+    }
+}
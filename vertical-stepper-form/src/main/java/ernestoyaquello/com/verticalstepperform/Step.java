@@ -1,11 +1,17 @@
 package ernestoyaquello.com.verticalstepperform;
 
 import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
 import android.view.View;
 
+import java.io.IOException;
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
 
 /**
  * This class represents a step of the form (e.g., user email). It holds the step's data and offers
@@ -15,6 +21,9 @@ import java.util.List;
  */
 public abstract class Step<T extends Serializable> {
 
+    private static final long DEFAULT_VALIDATION_QUIET_PERIOD_MILLIS = 300;
+    private static final long DEFAULT_VALIDATION_MAX_WAIT_MILLIS = 1000;
+
     private String originalNextButtonText;
     private String title;
     private String subtitle;
@@ -25,8 +34,29 @@ public abstract class Step<T extends Serializable> {
     private boolean hasError;
     private View stepLayout;
     private View contentLayout;
+    private boolean contentLayoutCreated;
+    private boolean stepDataPendingRestoration;
+    private Serializable stepDataToRestore;
+    private FormStateCodec.SpilledStepData spilledStepDataToRestore;
+    private PendingValidation pendingValidation;
+    private Handler debouncedValidationHandler;
+    private Runnable debouncedValidation;
+    private long debouncedValidationFirstRequestTime;
+    private boolean debouncedValidationUseAnimations;
+    private long validationQuietPeriodMillis;
+    private long validationMaxWaitMillis;
+    private boolean validationCacheEnabled;
+    private boolean validationResultCached;
+    private T cachedValidationStepData;
+    private long cachedValidationStepDataVersion;
+    private IsDataValid cachedValidationResult;
+    private long stepDataVersion;
+    private FormStateCodec.EncodedStep encodedStep;
+    private int validationCacheHits;
+    private int validationCacheMisses;
     private VerticalStepperFormView formView;
 
+    private List<Step<?>> stepDependencies;
     private List<InternalFormStepListener> internalListeners;
 
     protected Step(String title) {
@@ -43,7 +73,11 @@ public abstract class Step<T extends Serializable> {
         this.nextButtonText = nextButtonText;
         this.originalNextButtonText = nextButtonText;
         this.errorMessage = "";
+        this.stepDependencies = new ArrayList<>();
         this.internalListeners = new ArrayList<>();
+        this.validationQuietPeriodMillis = DEFAULT_VALIDATION_QUIET_PERIOD_MILLIS;
+        this.validationMaxWaitMillis = DEFAULT_VALIDATION_MAX_WAIT_MILLIS;
+        this.debouncedValidationFirstRequestTime = -1;
     }
 
     /**
@@ -64,6 +98,8 @@ public abstract class Step<T extends Serializable> {
 
     /**
      * Restores the step data. Will be called automatically by the form view upon restoration.
+     * If the step content is created lazily, the restoration will be deferred until the content
+     * layout of the step has been created.
      *
      * @param data The step data to restore.
      */
@@ -78,8 +114,43 @@ public abstract class Step<T extends Serializable> {
      */
     protected abstract IsDataValid isStepDataValid(T stepData);
 
+    /**
+     * Starts an asynchronous validation of the step data. Override this method when checking the
+     * validity of the data is too expensive to be done on the main thread (e.g., when it requires a
+     * database lookup). While the validation is in progress, the step will be displayed as pending,
+     * and once it finishes, its result will be used to mark the step as completed or uncompleted.
+     *
+     * If the data changes again before the validation finishes, the validation will be cancelled
+     * and a new one will be started, so only the result of the latest one will be taken into account.
+     *
+     * By default, it returns null, which means that the data will be validated synchronously using
+     * isStepDataValid(T).
+     *
+     * @param stepData The data whose validity will be checked.
+     * @return An instance of PendingValidation that will be completed with the result of the
+     * validation, or null to validate the data synchronously.
+     */
+    protected PendingValidation validateStepDataAsync(T stepData) {
+        return null;
+    }
+
+    /**
+     * Gets the codec that the form will use to save and restore the data of this step. Providing a
+     * codec is optional, but recommended for steps with large data, as it can make the saved state
+     * of the form much smaller.
+     *
+     * By default, it returns null, which means that the data will be saved using Java serialization.
+     *
+     * @return The codec of the step data, or null to use Java serialization.
+     */
+    protected StepDataCodec<T> getStepDataCodec() {
+        return null;
+    }
+
     /**
      * This method will be called automatically by the form in order to get the layout of the step.
+     * If the form is set up to create the step content lazily, it won't be called until the step
+     * is opened for the first time or its content is preloaded via preloadStepContent().
      *
      * @return The step's layout.
      */
@@ -192,9 +263,47 @@ public abstract class Step<T extends Serializable> {
         return hasError;
     }
 
+    /**
+     * Determines whether the step data is currently being validated asynchronously. While that is
+     * the case, the completion state of the step is the one it had before the validation started.
+     *
+     * @return True if there is an asynchronous validation in progress; false otherwise.
+     */
+    public boolean isValidationPending() {
+        return pendingValidation != null;
+    }
+
+    /**
+     * Gets the steps whose data this step depends on to be validated.
+     *
+     * @return The steps this step depends on.
+     */
+    public List<Step<?>> getStepDependencies() {
+        return Collections.unmodifiableList(stepDependencies);
+    }
+
+    /**
+     * Declares that the validity of the data of this step depends on the data of the specified
+     * step (e.g., an end date that must be after a start date). This way, every time the data of
+     * the specified step gets validated, this step will be validated again automatically.
+     *
+     * Dependencies must be declared before the form is initialized. Circular dependencies are not
+     * allowed and will make the initialization of the form fail.
+     *
+     * @param step The step this step depends on.
+     */
+    public void addStepDependency(Step<?> step) {
+        if (step != null && step != this && !stepDependencies.contains(step)) {
+            stepDependencies.add(step);
+        }
+    }
+
     /**
      * Gets the content layout of the step, which was generated on createStepContentLayout(), if any.
      *
+     * Please note that, when the step content is created lazily, this method will return null
+     * until the content has been created.
+     *
      * @return The step's content layout.
      */
     public View getContentLayout() {
@@ -207,7 +316,10 @@ public abstract class Step<T extends Serializable> {
      * Please note that this is not the layout of the step's content; this layout is for the entire
      * step and includes the header, the "Next" button, etc.
      *
-     * @return The entire step layout.
+     * When the form renders its steps in virtualized mode, only the steps that are currently
+     * visible have a layout bound to them, so this method might return null.
+     *
+     * @return The entire step layout, or null if no layout is currently bound to this step.
      */
     public View getEntireStepLayout() {
         return stepLayout;
@@ -247,16 +359,39 @@ public abstract class Step<T extends Serializable> {
      * @return True if the data is valid; false otherwise.
      */
     public boolean isStepDataValid() {
-        IsDataValid isDataValid = isStepDataValid(getStepData());
+        IsDataValid isDataValid = getValidationResult(getStepData());
         isDataValid = isDataValid == null ? new IsDataValid(true) : isDataValid;
 
         return isDataValid.isValid();
     }
 
+    /**
+     * Gets the number of times the result of a validation has been taken from the validation cache
+     * instead of validating the data again. Only useful when the validation cache is enabled.
+     *
+     * @return The number of validations that were avoided thanks to the cache.
+     */
+    public int getValidationCacheHits() {
+        return validationCacheHits;
+    }
+
+    /**
+     * Gets the number of times the data had to be validated because the validation cache didn't
+     * contain a valid result for it. Only useful when the validation cache is enabled.
+     *
+     * @return The number of validations that couldn't be avoided.
+     */
+    public int getValidationCacheMisses() {
+        return validationCacheMisses;
+    }
+
     /**
      * Marks the step as completed or uncompleted depending on whether the step data is valid or not.
      * It should be called every time the step data changes.
      *
+     * If the step validates its data asynchronously, this method will just start the validation
+     * and return the current completion state; the step will be updated once the result is ready.
+     *
      * @param useAnimations True to animate the changes in the views, false to not.
      * @return True if the step was marked as completed; false otherwise.
      */
@@ -264,12 +399,60 @@ public abstract class Step<T extends Serializable> {
         return markAsCompletedOrUncompletedInternal(useAnimations, false);
     }
 
+    /**
+     * Same as markAsCompletedOrUncompleted(), but instead of validating the data right away, the
+     * validation will be performed once the data stops changing for a short period of time. This
+     * way, when this method is called many times in a row (e.g., on every keystroke), only one
+     * validation will be performed and the views will be updated only once.
+     *
+     * Nonetheless, the validation will not be delayed beyond the maximum waiting time, and it will
+     * be performed immediately in case the user tries to navigate to another step before it runs
+     * (the buttons to go to the next step remain enabled in the meantime for that reason) or in
+     * case the state of the form gets saved.
+     * Both the quiet period and the maximum waiting time can be changed through
+     * setValidationDebounceTimes().
+     *
+     * @param useAnimations True to animate the changes in the views, false to not.
+     */
+    public void markAsCompletedOrUncompletedDebounced(boolean useAnimations) {
+        // The data has changed even though it won't be validated yet
+        invalidateEncodedState();
+
+        if (debouncedValidationHandler == null) {
+            debouncedValidationHandler = new Handler(Looper.getMainLooper());
+            debouncedValidation = () -> {
+                // The validation is still considered pending here, so the buttons that were
+                // enabled because of it will get updated once it has been performed
+                markAsCompletedOrUncompleted(debouncedValidationUseAnimations);
+            };
+        }
+
+        long now = SystemClock.uptimeMillis();
+        boolean isFirstRequest = debouncedValidationFirstRequestTime == -1;
+        if (isFirstRequest) {
+            debouncedValidationFirstRequestTime = now;
+        }
+        debouncedValidationUseAnimations |= useAnimations;
+
+        long validationTime = Math.min(
+                now + validationQuietPeriodMillis,
+                debouncedValidationFirstRequestTime + validationMaxWaitMillis);
+        debouncedValidationHandler.removeCallbacks(debouncedValidation);
+        debouncedValidationHandler.postAtTime(debouncedValidation, validationTime);
+
+        if (isFirstRequest && formView != null) {
+            // The buttons that trigger the validation right away must be enabled in the meantime
+            onUpdatedValidationState(useAnimations);
+        }
+    }
+
     /**
      * Marks the step as completed.
      *
      * @param useAnimations True to animate the changes in the views, false to not.
      */
     public void markAsCompleted(boolean useAnimations) {
+        cancelPendingValidation(useAnimations);
         updateStepCompletionState(true, "", useAnimations);
     }
 
@@ -280,9 +463,67 @@ public abstract class Step<T extends Serializable> {
      * @param useAnimations True to animate the changes in the views, false to not.
      */
     public void markAsUncompleted(String errorMessage, boolean useAnimations) {
+        cancelPendingValidation(useAnimations);
         updateStepCompletionState(false, errorMessage, useAnimations);
     }
 
+    /**
+     * Sets the times used by markAsCompletedOrUncompletedDebounced() to decide when to validate the
+     * step data.
+     *
+     * @param quietPeriodMillis The time the data must remain unchanged before it gets validated.
+     * @param maxWaitMillis The maximum time the validation can be delayed while the data keeps
+     *                      changing.
+     */
+    protected void setValidationDebounceTimes(long quietPeriodMillis, long maxWaitMillis) {
+        this.validationQuietPeriodMillis = Math.max(0, quietPeriodMillis);
+        this.validationMaxWaitMillis = Math.max(this.validationQuietPeriodMillis, maxWaitMillis);
+    }
+
+    /**
+     * Enables or disables the validation cache of this step. When enabled, the result of the last
+     * validation will be reused as long as the step data remains the same, so isStepDataValid(T)
+     * won't be called again for data that has already been validated.
+     *
+     * The data is considered to be the same when it is equal to the last validated data (according
+     * to its equals() method) and notifyStepDataChanged() hasn't been called since then. Hence, if
+     * the validity of the data depends on anything other than the data itself, or if the data is
+     * mutated in place, either notifyStepDataChanged() or invalidateValidationCache() must be called.
+     *
+     * @param validationCacheEnabled True to enable the validation cache; false to disable it.
+     */
+    protected void setValidationCacheEnabled(boolean validationCacheEnabled) {
+        this.validationCacheEnabled = validationCacheEnabled;
+        invalidateValidationCache();
+    }
+
+    /**
+     * Discards the result of the last validation, so the data will be validated again the next time.
+     */
+    protected void invalidateValidationCache() {
+        validationResultCached = false;
+        cachedValidationStepData = null;
+        cachedValidationResult = null;
+    }
+
+    /**
+     * Notifies the step that its data has changed, invalidating any result of a previous validation
+     * and any encoded copy of the data that the form might have kept to save its state. If the form
+     * autosaves its draft, the new data of the step will be included in the next autosave.
+     * It must be called whenever the data is mutated in place without being validated, as the form
+     * reuses the encoded copy of the data for as long as getStepData() returns the same instance.
+     * For data that gets replaced instead, it is only necessary to call it if the new data cannot
+     * be compared reliably with equals() and it changes without being validated.
+     */
+    protected void notifyStepDataChanged() {
+        stepDataVersion++;
+        invalidateEncodedState();
+
+        if (formView != null) {
+            onUpdatedStepData();
+        }
+    }
+
     /**
      * Sets the title of the step, updating the view if necessary,
      *
@@ -291,6 +532,7 @@ public abstract class Step<T extends Serializable> {
      */
     protected void updateTitle(String title, boolean useAnimations) {
         this.title = title == null ? "" : title;
+        invalidateEncodedState();
 
         onUpdatedTitle(useAnimations);
     }
@@ -303,6 +545,7 @@ public abstract class Step<T extends Serializable> {
      */
     protected void updateSubtitle(String subtitle, boolean useAnimations) {
         this.subtitle = subtitle == null ? "" : subtitle;
+        invalidateEncodedState();
 
         onUpdatedSubtitle(useAnimations);
     }
@@ -315,18 +558,24 @@ public abstract class Step<T extends Serializable> {
      */
     protected void updateNextButtonText(String buttonText, boolean useAnimations) {
         this.nextButtonText = buttonText == null ? "" : buttonText;
+        invalidateEncodedState();
 
         onUpdatedButtonText(useAnimations);
     }
 
     private void updateErrorMessage(String errorMessage, boolean useAnimations) {
         this.errorMessage = errorMessage == null ? "" : errorMessage;
+        invalidateEncodedState();
 
         onUpdatedErrorMessage(useAnimations);
     }
 
     private void updateStepCompletionState(boolean completed, String errorMessage, boolean useAnimations) {
         this.completed = completed;
+        invalidateEncodedState();
+        if (formView != null) {
+            formView.state.onStepCompletionStateUpdated(getPosition(), completed);
+        }
 
         updateErrorMessage(errorMessage, useAnimations);
         onUpdatedStepCompletionState(useAnimations);
@@ -339,6 +588,9 @@ public abstract class Step<T extends Serializable> {
 
     private void updateStepVisibility(boolean visibility, boolean useAnimations) {
         open = visibility;
+        if (formView != null) {
+            formView.state.onStepVisibilityUpdated(getPosition(), visibility);
+        }
 
         onUpdatedStepVisibility(useAnimations);
         if (visibility) {
@@ -384,6 +636,18 @@ public abstract class Step<T extends Serializable> {
         }
     }
 
+    private void onUpdatedStepData() {
+        for (InternalFormStepListener listener: internalListeners) {
+            listener.onUpdatedStepData(getPosition());
+        }
+    }
+
+    private void onUpdatedValidationState(boolean useAnimations) {
+        for (InternalFormStepListener listener: internalListeners) {
+            listener.onUpdatedValidationState(getPosition(), useAnimations);
+        }
+    }
+
     String getOriginalNextButtonText() {
         return originalNextButtonText == null ? "" : originalNextButtonText;
     }
@@ -407,15 +671,222 @@ public abstract class Step<T extends Serializable> {
     }
 
     void restoreStepDataInternal(Serializable data) {
-        restoreStepData((T)data);
+        spilledStepDataToRestore = null;
+        invalidateEncodedState();
+
+        if (contentLayoutCreated) {
+            stepDataToRestore = null;
+            stepDataPendingRestoration = false;
+            restoreStepData((T)data);
+        } else {
+            // The data will be restored as soon as the content layout gets created
+            stepDataToRestore = data;
+            stepDataPendingRestoration = true;
+        }
+    }
+
+    void restoreSpilledStepDataInternal(FormStateCodec.SpilledStepData data) {
+        // The data will only be read from its file once it is needed
+        invalidateEncodedState();
+        stepDataToRestore = null;
+        spilledStepDataToRestore = data;
+        stepDataPendingRestoration = true;
+
+        if (contentLayoutCreated) {
+            restorePendingStepData();
+        }
+    }
+
+    Serializable getStepDataInternal() {
+        if (stepDataPendingRestoration) {
+            loadSpilledStepData();
+            if (stepDataPendingRestoration) {
+                return stepDataToRestore;
+            }
+        }
+
+        return getStepData();
+    }
+
+    private void loadSpilledStepData() {
+        if (spilledStepDataToRestore != null) {
+            FormStateCodec.SpilledStepData spilledStepData = spilledStepDataToRestore;
+            spilledStepDataToRestore = null;
+            try {
+                stepDataToRestore = spilledStepData.load(this);
+            } catch (IOException e) {
+                // The data cannot be read anymore, so the step will just keep its current data
+                stepDataToRestore = null;
+                stepDataPendingRestoration = false;
+            }
+        }
+    }
+
+    private void restorePendingStepData() {
+        loadSpilledStepData();
+        if (stepDataPendingRestoration) {
+            Serializable data = stepDataToRestore;
+            stepDataToRestore = null;
+            stepDataPendingRestoration = false;
+            restoreStepData((T)data);
+        }
     }
 
     void restoreErrorStateInternal(boolean hasError) {
         this.hasError = hasError;
+        invalidateEncodedState();
+    }
+
+    FormStateCodec.EncodedStep getEncodedStepInternal() {
+        return encodedStep;
+    }
+
+    void setEncodedStepInternal(FormStateCodec.EncodedStep encodedStep) {
+        this.encodedStep = encodedStep;
     }
 
     boolean markAsCompletedOrUncompletedInternal(boolean useAnimations, boolean isAddingNewStep) {
-        IsDataValid isDataValid = isStepDataValid(getStepData());
+        boolean debouncedValidationWasPending = cancelDebouncedValidation();
+        invalidateEncodedState();
+
+        T stepData = getStepData();
+
+        // Any validation in progress is now outdated because it was started with older data
+        PendingValidation previousValidation = pendingValidation;
+        pendingValidation = null;
+        if (previousValidation != null) {
+            previousValidation.cancel();
+        }
+
+        long validatedStepDataVersion = stepDataVersion;
+        IsDataValid cachedResult = getCachedValidationResult(stepData);
+        PendingValidation validation = cachedResult == null ? validateStepDataAsync(stepData) : null;
+        if (validation == null) {
+            if (previousValidation != null || debouncedValidationWasPending) {
+                onUpdatedValidationState(useAnimations);
+            }
+
+            IsDataValid result = cachedResult;
+            if (result == null) {
+                result = isStepDataValid(stepData);
+                cacheValidationResult(stepData, validatedStepDataVersion, result);
+            }
+
+            return applyValidationResult(result, useAnimations, isAddingNewStep);
+        }
+
+        if (validation.isDone()) {
+            if (previousValidation != null || debouncedValidationWasPending) {
+                onUpdatedValidationState(useAnimations);
+            }
+
+            cacheValidationResult(stepData, validatedStepDataVersion, validation.getResult());
+            return applyValidationResult(validation.getResult(), useAnimations, isAddingNewStep);
+        }
+
+        pendingValidation = validation;
+        validation.setResultListener(result -> {
+            if (pendingValidation == validation) {
+                pendingValidation = null;
+                cacheValidationResult(stepData, validatedStepDataVersion, result);
+                applyValidationResult(result, useAnimations, isAddingNewStep);
+                onUpdatedValidationState(useAnimations);
+            }
+        });
+        if (previousValidation == null) {
+            onUpdatedValidationState(useAnimations);
+        }
+
+        return completed;
+    }
+
+    private IsDataValid getValidationResult(T stepData) {
+        IsDataValid result = getCachedValidationResult(stepData);
+        if (result == null) {
+            result = isStepDataValid(stepData);
+            cacheValidationResult(stepData, stepDataVersion, result);
+        }
+
+        return result;
+    }
+
+    private IsDataValid getCachedValidationResult(T stepData) {
+        if (!validationCacheEnabled) {
+            return null;
+        }
+
+        if (validationResultCached
+                && cachedValidationStepDataVersion == stepDataVersion
+                && Objects.equals(cachedValidationStepData, stepData)) {
+            validationCacheHits++;
+            return cachedValidationResult;
+        }
+
+        validationCacheMisses++;
+        return null;
+    }
+
+    private void cacheValidationResult(T stepData, long validatedStepDataVersion, IsDataValid result) {
+        if (validationCacheEnabled && validatedStepDataVersion == stepDataVersion) {
+            validationResultCached = true;
+            cachedValidationStepData = stepData;
+            cachedValidationStepDataVersion = validatedStepDataVersion;
+            cachedValidationResult = result == null ? new IsDataValid(true) : result;
+        }
+    }
+
+    /**
+     * If there is a debounced validation waiting to be performed, it performs it right away.
+     */
+    void flushDebouncedValidationInternal() {
+        if (debouncedValidationFirstRequestTime != -1) {
+            markAsCompletedOrUncompleted(debouncedValidationUseAnimations);
+        }
+    }
+
+    /**
+     * If there is a debounced validation waiting to be performed, it discards it.
+     */
+    void cancelDebouncedValidationInternal() {
+        cancelDebouncedValidation();
+    }
+
+    /**
+     * Determines whether there is a debounced validation waiting to be performed.
+     *
+     * @return True if a debounced validation is waiting to be performed; false otherwise.
+     */
+    boolean isDebouncedValidationPendingInternal() {
+        return debouncedValidationFirstRequestTime != -1;
+    }
+
+    private void invalidateEncodedState() {
+        // The encoded state is outdated, so the form will have to encode the step again to save it
+        encodedStep = null;
+    }
+
+    private boolean cancelDebouncedValidation() {
+        if (debouncedValidationFirstRequestTime != -1) {
+            debouncedValidationHandler.removeCallbacks(debouncedValidation);
+            debouncedValidationFirstRequestTime = -1;
+            debouncedValidationUseAnimations = false;
+
+            return true;
+        }
+
+        return false;
+    }
+
+    private void cancelPendingValidation(boolean useAnimations) {
+        if (pendingValidation != null) {
+            PendingValidation validation = pendingValidation;
+            pendingValidation = null;
+            validation.cancel();
+            onUpdatedValidationState(useAnimations);
+        }
+    }
+
+    private boolean applyValidationResult(IsDataValid isDataValid, boolean useAnimations, boolean isAddingNewStep) {
         isDataValid = isDataValid == null ? new IsDataValid(true) : isDataValid;
         boolean isValid = isDataValid.isValid();
 
@@ -432,16 +903,38 @@ public abstract class Step<T extends Serializable> {
             updateErrorMessage(isValid ? "" : isDataValid.getErrorMessage(), useAnimations);
         }
 
+        if (formView != null) {
+            formView.revalidateStepsAffectedBy(this, useAnimations);
+        }
+
         return isValid;
     }
 
-    void initializeStepInternal(View stepLayout, VerticalStepperFormView formView) {
-        this.stepLayout = stepLayout;
+    void revalidateAfterDependencyChangeInternal(boolean useAnimations) {
+        // The result of the last validation might depend on outdated data of another step
+        invalidateValidationCache();
+
+        // Just like with new steps, the errors of steps that the user hasn't seen are kept hidden
+        markAsCompletedOrUncompletedInternal(useAnimations, !open && !hasError);
+    }
+
+    void initializeStepInternal(VerticalStepperFormView formView) {
         this.formView = formView;
     }
 
+    void setEntireStepLayoutInternal(View stepLayout) {
+        this.stepLayout = stepLayout;
+    }
+
     void setContentLayoutInternal(View contentLayout) {
         this.contentLayout = contentLayout;
+        this.contentLayoutCreated = true;
+
+        restorePendingStepData();
+    }
+
+    boolean isContentLayoutCreatedInternal() {
+        return contentLayoutCreated;
     }
 
     /**
@@ -481,6 +974,99 @@ public abstract class Step<T extends Serializable> {
         }
     }
 
+    /**
+     * This class represents an asynchronous validation of the step data that is still in progress.
+     * It must be completed with the result of the validation by calling complete(), which can be
+     * done from any thread.
+     *
+     * The validation might get cancelled if the step data changes before it finishes. In that case,
+     * its result will be ignored, so the ongoing work can be stopped early by checking isCancelled()
+     * or by setting a listener through setOnCancelledListener().
+     */
+    protected static class PendingValidation {
+
+        private final Handler mainThreadHandler;
+        private volatile boolean cancelled;
+        private boolean done;
+        private IsDataValid result;
+        private Runnable onCancelledListener;
+        private ResultListener resultListener;
+
+        public PendingValidation() {
+            this.mainThreadHandler = new Handler(Looper.getMainLooper());
+        }
+
+        /**
+         * Completes the validation with the specified result. It can be called from any thread; the
+         * result will be delivered to the step on the main thread.
+         *
+         * @param result The result of the validation.
+         */
+        public void complete(IsDataValid result) {
+            if (Looper.myLooper() == Looper.getMainLooper()) {
+                deliverResult(result);
+            } else {
+                mainThreadHandler.post(() -> deliverResult(result));
+            }
+        }
+
+        /**
+         * Determines whether the validation has been cancelled because it is no longer needed.
+         *
+         * @return True if the validation has been cancelled; false otherwise.
+         */
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        /**
+         * Sets a listener that will be invoked on the main thread if the validation gets cancelled.
+         *
+         * @param onCancelledListener The listener.
+         */
+        public void setOnCancelledListener(Runnable onCancelledListener) {
+            this.onCancelledListener = onCancelledListener;
+        }
+
+        boolean isDone() {
+            return done;
+        }
+
+        IsDataValid getResult() {
+            return result;
+        }
+
+        void setResultListener(ResultListener resultListener) {
+            this.resultListener = resultListener;
+        }
+
+        void cancel() {
+            if (!cancelled && !done) {
+                cancelled = true;
+                resultListener = null;
+                if (onCancelledListener != null) {
+                    onCancelledListener.run();
+                }
+            }
+        }
+
+        private void deliverResult(IsDataValid result) {
+            if (cancelled || done) {
+                return;
+            }
+
+            this.done = true;
+            this.result = result;
+            if (resultListener != null) {
+                resultListener.onResult(result);
+            }
+        }
+
+        interface ResultListener {
+            void onResult(IsDataValid result);
+        }
+    }
+
     /**
      * Internal listener that will be used to notify both the form and the step helper
      * about any changes on this step so they can update accordingly.
@@ -492,5 +1078,7 @@ public abstract class Step<T extends Serializable> {
         void onUpdatedErrorMessage(int stepPosition, boolean useAnimations);
         void onUpdatedStepCompletionState(int stepPosition, boolean useAnimations);
         void onUpdatedStepVisibility(int stepPosition, boolean useAnimations);
+        void onUpdatedValidationState(int stepPosition, boolean useAnimations);
+        void onUpdatedStepData(int stepPosition);
     }
 }
@@ -0,0 +1,46 @@
+package ernestoyaquello.com.verticalstepperform;
+
+/**
+ * This class describes a change in the list of steps of the form, which can be either the
+ * addition of a step or the removal of one.
+ */
+public class StepChange {
+
+    private boolean addition;
+    private int index;
+    private Step<?> step;
+
+    StepChange(boolean addition, int index, Step<?> step) {
+        this.addition = addition;
+        this.index = index;
+        this.step = step;
+    }
+
+    /**
+     * Determines whether this change is the addition of a step or the removal of one.
+     *
+     * @return True if a step was added; false if a step was removed.
+     */
+    public boolean isAddition() {
+        return addition;
+    }
+
+    /**
+     * Gets the index of the step that was added or removed. This index refers to the state of the
+     * form right after the previous change was applied.
+     *
+     * @return The index of the step that was added or removed.
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * Gets the step that was added or removed.
+     *
+     * @return The step that was added or removed.
+     */
+    public Step<?> getStep() {
+        return step;
+    }
+}
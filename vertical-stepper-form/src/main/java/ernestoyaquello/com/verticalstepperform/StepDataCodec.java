@@ -0,0 +1,35 @@
+package ernestoyaquello.com.verticalstepperform;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.Serializable;
+
+/**
+ * Codec that can be used by a step to write its data into the saved state of the form and to read
+ * it back. Writing the data directly in a compact binary format is usually much faster and smaller
+ * than relying on Java serialization, which is what the form uses for the steps that don't provide
+ * a codec.
+ *
+ * @param <T> The type of the data of the step.
+ */
+public interface StepDataCodec<T extends Serializable> {
+
+    /**
+     * Writes the step data.
+     *
+     * @param data The data to write. It will never be null.
+     * @param output The output where the data must be written.
+     * @throws IOException If the data cannot be written.
+     */
+    void writeStepData(T data, DataOutput output) throws IOException;
+
+    /**
+     * Reads the step data, which must be read exactly as it was written in writeStepData().
+     *
+     * @param input The input from where the data must be read.
+     * @return The step data.
+     * @throws IOException If the data cannot be read.
+     */
+    T readStepData(DataInput input) throws IOException;
+}
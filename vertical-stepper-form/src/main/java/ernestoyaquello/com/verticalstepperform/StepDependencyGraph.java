@@ -0,0 +1,122 @@
+package ernestoyaquello.com.verticalstepperform;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class keeps track of the dependencies between the steps of the form. It is used to find out
+ * which steps must be validated again after the data of a step changes, and in which order.
+ *
+ * The steps are sorted topologically when the graph is built, so circular dependencies are detected
+ * at that point instead of causing endless revalidations later on.
+ */
+class StepDependencyGraph {
+
+    private Map<Step<?>, List<Step<?>>> dependentSteps;
+    private Map<Step<?>, Integer> topologicalOrder;
+
+    StepDependencyGraph() {
+        this.dependentSteps = new IdentityHashMap<>();
+        this.topologicalOrder = new IdentityHashMap<>();
+    }
+
+    /**
+     * Builds the graph using the dependencies declared by the specified steps. Dependencies on steps
+     * that are not part of the list are ignored.
+     *
+     * @param steps The steps of the form.
+     * @throws IllegalStateException If there is a circular dependency between the steps.
+     */
+    void build(List<Step<?>> steps) {
+        Map<Step<?>, List<Step<?>>> newDependentSteps = new IdentityHashMap<>();
+        Map<Step<?>, Integer> numberOfDependencies = new IdentityHashMap<>();
+        for (Step<?> step : steps) {
+            numberOfDependencies.put(step, 0);
+        }
+
+        boolean hasDependencies = false;
+        for (Step<?> step : steps) {
+            for (Step<?> dependency : step.getStepDependencies()) {
+                if (numberOfDependencies.containsKey(dependency)) {
+                    List<Step<?>> dependents = newDependentSteps.get(dependency);
+                    if (dependents == null) {
+                        dependents = new ArrayList<>();
+                        newDependentSteps.put(dependency, dependents);
+                    }
+                    dependents.add(step);
+                    numberOfDependencies.put(step, numberOfDependencies.get(step) + 1);
+                    hasDependencies = true;
+                }
+            }
+        }
+
+        Map<Step<?>, Integer> newTopologicalOrder = new IdentityHashMap<>();
+        if (hasDependencies) {
+            Deque<Step<?>> stepsWithoutDependencies = new ArrayDeque<>();
+            for (Step<?> step : steps) {
+                if (numberOfDependencies.get(step) == 0) {
+                    stepsWithoutDependencies.add(step);
+                }
+            }
+
+            while (!stepsWithoutDependencies.isEmpty()) {
+                Step<?> step = stepsWithoutDependencies.poll();
+                newTopologicalOrder.put(step, newTopologicalOrder.size());
+
+                List<Step<?>> dependents = newDependentSteps.get(step);
+                if (dependents != null) {
+                    for (Step<?> dependent : dependents) {
+                        int remainingDependencies = numberOfDependencies.get(dependent) - 1;
+                        numberOfDependencies.put(dependent, remainingDependencies);
+                        if (remainingDependencies == 0) {
+                            stepsWithoutDependencies.add(dependent);
+                        }
+                    }
+                }
+            }
+
+            if (newTopologicalOrder.size() != steps.size()) {
+                throw new IllegalStateException("There is a circular dependency between the steps of the form");
+            }
+        }
+
+        dependentSteps = newDependentSteps;
+        topologicalOrder = newTopologicalOrder;
+    }
+
+    /**
+     * Gets all the steps that depend, directly or indirectly, on the specified one.
+     *
+     * @param step The step whose data has changed.
+     * @return The affected steps, sorted so every step comes after the steps it depends on.
+     */
+    List<Step<?>> getAffectedSteps(Step<?> step) {
+        if (!dependentSteps.containsKey(step)) {
+            return Collections.emptyList();
+        }
+
+        Map<Step<?>, Boolean> visitedSteps = new IdentityHashMap<>();
+        List<Step<?>> affectedSteps = new ArrayList<>();
+        Deque<Step<?>> stepsToVisit = new ArrayDeque<>(dependentSteps.get(step));
+        while (!stepsToVisit.isEmpty()) {
+            Step<?> affectedStep = stepsToVisit.poll();
+            if (visitedSteps.put(affectedStep, true) == null) {
+                affectedSteps.add(affectedStep);
+
+                List<Step<?>> dependents = dependentSteps.get(affectedStep);
+                if (dependents != null) {
+                    stepsToVisit.addAll(dependents);
+                }
+            }
+        }
+
+        Collections.sort(affectedSteps, (s1, s2) -> topologicalOrder.get(s1) - topologicalOrder.get(s2));
+
+        return affectedSteps;
+    }
+}
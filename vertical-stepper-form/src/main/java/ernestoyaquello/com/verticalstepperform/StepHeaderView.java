@@ -0,0 +1,389 @@
+package ernestoyaquello.com.verticalstepperform;
+
+import android.animation.ValueAnimator;
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.RectF;
+import android.graphics.drawable.Drawable;
+import android.os.Build;
+import android.os.SystemClock;
+import android.text.Layout;
+import android.text.StaticLayout;
+import android.text.TextPaint;
+import android.util.AttributeSet;
+import android.view.View;
+
+import androidx.core.view.ViewCompat;
+
+import ernestoyaquello.com.verticalstepperform.VerticalStepperFormView.FormStyle;
+
+/**
+ * Header of a step that draws all its elements directly on a canvas: the circle with the number of
+ * the step, the done icon or the validation progress, the line that connects the step with the
+ * next one, the title and the subtitle. It replaces the hierarchy of views used for the header in
+ * the default step layout, so each header is measured, laid out and drawn as a single view.
+ *
+ * The form uses it when flat step headers are enabled (see R.layout.step_layout_flat), but it can
+ * also be used in custom step layouts as long as it has the id step_header. Its metrics and colors
+ * are taken from the style of the form.
+ */
+public class StepHeaderView extends View {
+
+    static final int GLYPH_NUMBER = 0;
+    static final int GLYPH_DONE = 1;
+    static final int GLYPH_PROGRESS = 2;
+
+    private static final int LINE_COLOR = 0xFFE0E0E0;
+    private static final long MIN_SUBTITLE_ANIMATION_DURATION_MILLIS = 150;
+    private static final long PROGRESS_ROTATION_PERIOD_MILLIS = 1000;
+
+    private final TextPaint numberPaint;
+    private final TextPaint titlePaint;
+    private final TextPaint subtitlePaint;
+    private final Paint circlePaint;
+    private final Paint linePaint;
+    private final Paint progressPaint;
+    private final RectF progressBounds;
+    private final float density;
+
+    private int circleSize;
+    private int lineThickness;
+    private int marginFromCircleToText;
+    private int titleColor;
+    private int subtitleColor;
+    private int numberColor;
+    private int circleColor;
+    private Drawable doneIconDrawable;
+
+    private String stepNumber;
+    private String title;
+    private String subtitle;
+    private int glyph;
+    private boolean displayLine;
+    private float elementsAlpha;
+    private float subtitleAlpha;
+    private float subtitleFraction;
+    private boolean subtitleVisible;
+    private ValueAnimator subtitleAnimator;
+
+    private StaticLayout titleLayout;
+    private StaticLayout subtitleLayout;
+    private int textLayoutsWidth;
+
+    public StepHeaderView(Context context) {
+        this(context, null);
+    }
+
+    public StepHeaderView(Context context, AttributeSet attrs) {
+        this(context, attrs, 0);
+    }
+
+    public StepHeaderView(Context context, AttributeSet attrs, int defStyleAttr) {
+        super(context, attrs, defStyleAttr);
+
+        density = getResources().getDisplayMetrics().density;
+        numberPaint = new TextPaint(Paint.ANTI_ALIAS_FLAG);
+        numberPaint.setTextAlign(Paint.Align.CENTER);
+        titlePaint = new TextPaint(Paint.ANTI_ALIAS_FLAG);
+        subtitlePaint = new TextPaint(Paint.ANTI_ALIAS_FLAG);
+        circlePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        linePaint = new Paint();
+        linePaint.setColor(LINE_COLOR);
+        progressPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        progressPaint.setStyle(Paint.Style.STROKE);
+        progressPaint.setStrokeCap(Paint.Cap.ROUND);
+        progressPaint.setStrokeWidth(2 * density);
+        progressBounds = new RectF();
+
+        circleSize = getResources().getDimensionPixelSize(R.dimen.vertical_stepper_form_width_circle);
+        lineThickness = getResources().getDimensionPixelSize(R.dimen.vertical_stepper_form_width_vertical_line);
+        marginFromCircleToText = getResources().getDimensionPixelSize(
+                R.dimen.vertical_stepper_form_space_between_numbers_and_content);
+
+        stepNumber = "";
+        title = "";
+        subtitle = "";
+        glyph = GLYPH_NUMBER;
+        displayLine = true;
+        elementsAlpha = 1f;
+        subtitleAlpha = 1f;
+        textLayoutsWidth = -1;
+    }
+
+    void setup(FormStyle style, FormStyleCache formStyleCache) {
+        circleSize = style.leftCircleSizeInPx;
+        lineThickness = style.leftVerticalLineThicknessSizeInPx;
+        marginFromCircleToText = style.marginFromStepNumbersToContentInPx;
+
+        numberColor = style.stepNumberTextColor;
+        numberPaint.setTypeface(style.stepNumberFontFamily);
+        numberPaint.setTextSize(style.leftCircleTextSizeInPx);
+        progressPaint.setColor(style.stepNumberTextColor);
+        doneIconDrawable = formStyleCache.getStepDoneIconDrawable(style.stepNumberTextColor);
+
+        titleColor = style.stepTitleTextColor;
+        titlePaint.setTypeface(style.stepTitleFontFamily);
+        titlePaint.setTextSize(style.stepTitleTextSizeInPx);
+
+        subtitleColor = style.stepSubtitleTextColor;
+        subtitlePaint.setTypeface(style.stepSubtitleFontFamily);
+        subtitlePaint.setTextSize(style.stepSubtitleTextSizeInPx);
+
+        circleColor = style.stepNumberBackgroundColor;
+
+        textLayoutsWidth = -1;
+        requestLayout();
+        invalidate();
+    }
+
+    void setStepNumber(int number) {
+        String newStepNumber = String.valueOf(number);
+        if (!newStepNumber.equals(stepNumber)) {
+            stepNumber = newStepNumber;
+            invalidate();
+        }
+    }
+
+    String getTitle() {
+        return title;
+    }
+
+    void setTitle(String title) {
+        if (!this.title.equals(title)) {
+            this.title = title;
+            onTextChanged();
+        }
+    }
+
+    String getSubtitle() {
+        return subtitle;
+    }
+
+    void setSubtitle(String subtitle) {
+        if (!this.subtitle.equals(subtitle)) {
+            this.subtitle = subtitle;
+            onTextChanged();
+        }
+    }
+
+    void setCircleColor(int circleColor) {
+        if (this.circleColor != circleColor) {
+            this.circleColor = circleColor;
+            invalidate();
+        }
+    }
+
+    void setGlyph(int glyph) {
+        if (this.glyph != glyph) {
+            this.glyph = glyph;
+            invalidate();
+        }
+    }
+
+    void setDisplayLine(boolean displayLine) {
+        if (this.displayLine != displayLine) {
+            this.displayLine = displayLine;
+            invalidate();
+        }
+    }
+
+    void setElementsAlpha(float elementsAlpha, float subtitleAlpha) {
+        if (this.elementsAlpha != elementsAlpha || this.subtitleAlpha != subtitleAlpha) {
+            this.elementsAlpha = elementsAlpha;
+            this.subtitleAlpha = subtitleAlpha;
+            invalidate();
+        }
+    }
+
+    /**
+     * Shows or hides the subtitle. Since the subtitle is part of this view, it is animated by
+     * changing the height of the view itself.
+     */
+    void setSubtitleVisible(boolean visible, boolean animate) {
+        if (subtitleVisible == visible) {
+            return;
+        }
+        subtitleVisible = visible;
+        updateContentDescription();
+
+        float finalFraction = visible ? 1f : 0f;
+        if (subtitleAnimator != null) {
+            subtitleAnimator.cancel();
+            subtitleAnimator = null;
+        }
+        if (!animate || !ViewCompat.isLaidOut(this)) {
+            setSubtitleFraction(finalFraction);
+            return;
+        }
+
+        int subtitleHeight = subtitleLayout != null ? subtitleLayout.getHeight() : 0;
+        long durationMillis = ((int) (subtitleHeight * Math.abs(finalFraction - subtitleFraction) / density)) * 2;
+        durationMillis = Math.max(durationMillis, MIN_SUBTITLE_ANIMATION_DURATION_MILLIS);
+
+        subtitleAnimator = ValueAnimator.ofFloat(subtitleFraction, finalFraction);
+        subtitleAnimator.setDuration(durationMillis);
+        subtitleAnimator.addUpdateListener(animator -> setSubtitleFraction((float) animator.getAnimatedValue()));
+        subtitleAnimator.start();
+    }
+
+    void finishSubtitleAnimation() {
+        if (subtitleAnimator != null) {
+            subtitleAnimator.end();
+            subtitleAnimator = null;
+        }
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        finishSubtitleAnimation();
+
+        super.onDetachedFromWindow();
+    }
+
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        int width = getDefaultSize(getSuggestedMinimumWidth(), widthMeasureSpec);
+        updateTextLayouts(getTextWidth(width));
+
+        int height = getPaddingTop() + getTitleBlockHeight() + getSubtitleBlockHeight() + getPaddingBottom();
+        setMeasuredDimension(width, resolveSize(height, heightMeasureSpec));
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        super.onDraw(canvas);
+
+        updateTextLayouts(getTextWidth(getWidth()));
+
+        boolean isRtl = ViewCompat.getLayoutDirection(this) == ViewCompat.LAYOUT_DIRECTION_RTL;
+        int circleLeft = isRtl ? getWidth() - getPaddingRight() - circleSize : getPaddingLeft();
+        int textLeft = isRtl ? getPaddingLeft() : circleLeft + circleSize + marginFromCircleToText;
+        int top = getPaddingTop();
+        float centerX = circleLeft + circleSize / 2f;
+        float centerY = top + circleSize / 2f;
+
+        // Line to the next step
+        if (displayLine) {
+            float lineTop = top + circleSize + 8 * density;
+            float lineBottom = getHeight() - getPaddingBottom();
+            if (lineBottom > lineTop) {
+                canvas.drawRect(
+                        centerX - lineThickness / 2f,
+                        lineTop,
+                        centerX + lineThickness / 2f,
+                        lineBottom,
+                        linePaint);
+            }
+        }
+
+        // Circle and its glyph
+        circlePaint.setColor(applyAlpha(circleColor, elementsAlpha));
+        canvas.drawCircle(centerX, centerY, circleSize / 2f, circlePaint);
+        switch (glyph) {
+            case GLYPH_DONE:
+                int iconInset = (int) (2 * density);
+                doneIconDrawable.setBounds(
+                        circleLeft + iconInset,
+                        top + iconInset,
+                        circleLeft + circleSize - iconInset,
+                        top + circleSize - iconInset);
+                doneIconDrawable.setAlpha((int) (255 * elementsAlpha));
+                doneIconDrawable.draw(canvas);
+                break;
+            case GLYPH_PROGRESS:
+                float progressInset = 6 * density;
+                progressBounds.set(
+                        circleLeft + progressInset,
+                        top + progressInset,
+                        circleLeft + circleSize - progressInset,
+                        top + circleSize - progressInset);
+                long rotationTime = SystemClock.uptimeMillis() % PROGRESS_ROTATION_PERIOD_MILLIS;
+                float startAngle = 360f * rotationTime / PROGRESS_ROTATION_PERIOD_MILLIS;
+                progressPaint.setAlpha((int) (255 * elementsAlpha));
+                canvas.drawArc(progressBounds, startAngle, 270f, false, progressPaint);
+                ViewCompat.postInvalidateOnAnimation(this);
+                break;
+            default:
+                numberPaint.setColor(applyAlpha(numberColor, elementsAlpha));
+                float baseline = centerY - (numberPaint.descent() + numberPaint.ascent()) / 2f;
+                canvas.drawText(stepNumber, centerX, baseline, numberPaint);
+                break;
+        }
+
+        // Title, which is vertically centered with the circle
+        int titleBlockHeight = getTitleBlockHeight();
+        titlePaint.setColor(applyAlpha(titleColor, elementsAlpha));
+        canvas.save();
+        canvas.translate(textLeft, top + (titleBlockHeight - titleLayout.getHeight()) / 2f);
+        titleLayout.draw(canvas);
+        canvas.restore();
+
+        // Subtitle, which is only partially visible while it is being shown or hidden
+        if (subtitleFraction > 0f) {
+            int subtitleTop = top + titleBlockHeight;
+            subtitlePaint.setColor(applyAlpha(subtitleColor, subtitleAlpha * subtitleFraction));
+            canvas.save();
+            canvas.clipRect(
+                    textLeft,
+                    subtitleTop,
+                    textLeft + subtitleLayout.getWidth(),
+                    subtitleTop + subtitleLayout.getHeight() * subtitleFraction);
+            canvas.translate(textLeft, subtitleTop);
+            subtitleLayout.draw(canvas);
+            canvas.restore();
+        }
+    }
+
+    private void setSubtitleFraction(float subtitleFraction) {
+        this.subtitleFraction = subtitleFraction;
+        requestLayout();
+        invalidate();
+    }
+
+    private void onTextChanged() {
+        textLayoutsWidth = -1;
+        updateContentDescription();
+        requestLayout();
+        invalidate();
+    }
+
+    private void updateContentDescription() {
+        setContentDescription(subtitleVisible && !subtitle.isEmpty() ? title + ". " + subtitle : title);
+    }
+
+    private int getTextWidth(int width) {
+        return Math.max(0, width - getPaddingLeft() - getPaddingRight() - circleSize - marginFromCircleToText);
+    }
+
+    private int getTitleBlockHeight() {
+        return Math.max(circleSize, titleLayout.getHeight());
+    }
+
+    private int getSubtitleBlockHeight() {
+        // The space below the title is the same as in the default layout: 10dp plus a padding of 8dp
+        int visibleSubtitleHeight = (int) (subtitleLayout.getHeight() * subtitleFraction);
+        return Math.max((int) (10 * density), visibleSubtitleHeight) + (int) (8 * density);
+    }
+
+    private void updateTextLayouts(int textWidth) {
+        if (textLayoutsWidth != textWidth || titleLayout == null || subtitleLayout == null) {
+            titleLayout = createTextLayout(title, titlePaint, textWidth);
+            subtitleLayout = createTextLayout(subtitle, subtitlePaint, textWidth);
+            textLayoutsWidth = textWidth;
+        }
+    }
+
+    private static StaticLayout createTextLayout(String text, TextPaint paint, int width) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
+            return StaticLayout.Builder.obtain(text, 0, text.length(), paint, width).build();
+        }
+
+        return new StaticLayout(text, paint, width, Layout.Alignment.ALIGN_NORMAL, 1f, 0f, true);
+    }
+
+    private static int applyAlpha(int color, float alpha) {
+        return Color.argb((int) (Color.alpha(color) * alpha), Color.red(color), Color.green(color), Color.blue(color));
+    }
+}
@@ -1,8 +1,6 @@
 package ernestoyaquello.com.verticalstepperform;
 
 import android.content.Context;
-import android.graphics.PorterDuff;
-import android.graphics.PorterDuffColorFilter;
 import android.graphics.drawable.Drawable;
 import android.util.TypedValue;
 import android.view.LayoutInflater;
@@ -10,13 +8,13 @@ import android.view.View;
 import android.view.ViewGroup;
 import android.widget.ImageView;
 import android.widget.LinearLayout;
+import android.widget.ProgressBar;
 import android.widget.TextView;
 
 import com.google.android.material.button.MaterialButton;
 
 import androidx.annotation.LayoutRes;
 import androidx.annotation.NonNull;
-import androidx.core.content.ContextCompat;
 
 import ernestoyaquello.com.verticalstepperform.VerticalStepperFormView.FormStyle;
 
@@ -29,17 +27,31 @@ import ernestoyaquello.com.verticalstepperform.VerticalStepperFormView.FormStyle
  */
 class StepHelper implements Step.InternalFormStepListener {
 
+    private static final int PENDING_TITLE_UPDATE = 1;
+    private static final int PENDING_SUBTITLE_UPDATE = 1 << 1;
+    private static final int PENDING_BUTTON_TEXT_UPDATE = 1 << 2;
+    private static final int PENDING_ERROR_MESSAGE_UPDATE = 1 << 3;
+    private static final int PENDING_VISIBILITY_UPDATE = 1 << 4;
+    private static final int PENDING_COMPLETION_STATE_UPDATE = 1 << 5;
+
     private Step<?> step;
     private FormStyle formStyle;
+    private FormStyleCache formStyleCache;
+    private StepViewUpdateScheduler viewUpdateScheduler;
+    private SlideAnimationScheduler slideAnimationScheduler;
+    private int pendingViewUpdates;
+    private boolean animatePendingViewUpdates;
 
     private View stepNumberCircleView;
     private TextView titleView;
     private TextView subtitleView;
     private TextView stepNumberTextView;
     private ImageView doneIconView;
+    private ProgressBar validationProgressView;
     private TextView errorMessageView;
     private ImageView errorIconView;
     private View headerView;
+    private StepHeaderView stepHeaderView;
     private MaterialButton nextButtonView;
     private MaterialButton cancelButtonView;
     private View lineView1;
@@ -60,106 +72,218 @@ class StepHelper implements Step.InternalFormStepListener {
     }
 
     View initialize(VerticalStepperFormView form, ViewGroup parent, @LayoutRes int stepLayoutResourceId) {
-        if (step.getEntireStepLayout() == null) {
-            formStyle = form.style;
+        initialize(form);
 
-            Context context = form.getContext();
+        Context context = form.getContext();
+        View stepLayout;
+        if (form.style.reuseStepLayouts) {
+            stepLayout = StepLayoutPool.obtain(context, stepLayoutResourceId, parent);
+        } else {
             LayoutInflater inflater = LayoutInflater.from(context);
-            View stepLayout = inflater.inflate(stepLayoutResourceId, parent, false);
+            stepLayout = inflater.inflate(stepLayoutResourceId, parent, false);
+        }
+        bindViews(form, stepLayout);
 
-            step.initializeStepInternal(stepLayout, form);
-            step.setContentLayoutInternal(step.createStepContentLayout());
+        return step.getEntireStepLayout();
+    }
+
+    void initialize(VerticalStepperFormView form) {
+        initialize(form, !form.style.createStepContentLazily);
+    }
+
+    void initialize(VerticalStepperFormView form, boolean createContentLayout) {
+        if (step.getFormView() == null) {
+            formStyle = form.style;
+            formStyleCache = form.styleCache;
+            viewUpdateScheduler = form.viewUpdateScheduler;
+            slideAnimationScheduler = form.slideAnimationScheduler;
+
+            step.initializeStepInternal(form);
+            if (createContentLayout) {
+                createContentLayoutIfNecessary();
+            }
 
-            setupStepViews(form, stepLayout);
+            int position = form.getStepPosition(step);
+            boolean isLast = (position + 1) == form.getTotalNumberOfSteps();
+
+            String title = !isConfirmationStep()
+                    ? step.getTitle()
+                    : formStyle.confirmationStepTitle;
+            String subtitle = !isConfirmationStep()
+                    ? step.getSubtitle()
+                    : formStyle.confirmationStepSubtitle;
+            String stepNextButtonText = !step.getNextButtonText().isEmpty()
+                    ? step.getNextButtonText()
+                    : isLast ? formStyle.lastStepNextButtonText : formStyle.stepNextButtonText;
+
+            step.updateTitle(title, false);
+            step.updateSubtitle(subtitle, false);
+            step.updateNextButtonText(stepNextButtonText, false);
         } else {
             throw new IllegalStateException("This step has already been initialized");
         }
+    }
 
-        return step.getEntireStepLayout();
+    void bindViews(final VerticalStepperFormView form, View stepLayout) {
+        step.setEntireStepLayoutInternal(stepLayout);
+        attachContentLayout(stepLayout);
+
+        setupStepViews(form, stepLayout);
     }
 
-    private void setupStepViews(final VerticalStepperFormView form, View stepLayout) {
+    void createContentLayoutIfNecessary() {
+        if (!step.isContentLayoutCreatedInternal()) {
+            step.setContentLayoutInternal(step.createStepContentLayout());
+
+            View stepLayout = step.getEntireStepLayout();
+            if (stepLayout != null) {
+                attachContentLayout(stepLayout);
+            }
+        }
+    }
 
-        if (step.getContentLayout() != null) {
-            ViewGroup contentContainerLayout = step.getEntireStepLayout().findViewById(R.id.step_content);
-            contentContainerLayout.addView(step.getContentLayout());
+    private void attachContentLayout(View stepLayout) {
+        View contentLayout = step.getContentLayout();
+        if (contentLayout != null) {
+            if (contentLayout.getParent() instanceof ViewGroup) {
+                ((ViewGroup) contentLayout.getParent()).removeView(contentLayout);
+            }
+            ViewGroup contentContainerLayout = stepLayout.findViewById(R.id.step_content);
+            contentContainerLayout.addView(contentLayout);
         }
+    }
 
-        stepNumberCircleView = stepLayout.findViewById(R.id.step_number_circle);
-        stepNumberTextView = stepLayout.findViewById(R.id.step_number);
-        titleView = stepLayout.findViewById(R.id.step_title);
-        subtitleView = stepLayout.findViewById(R.id.step_subtitle);
-        doneIconView = stepLayout.findViewById(R.id.step_done_icon);
+    void unbindViews(View stepLayout) {
+        if (step.getEntireStepLayout() != stepLayout) {
+            // The step is already bound to a different layout, so there is nothing to unbind here
+            return;
+        }
+
+        finishSlideAnimations();
+
+        View contentLayout = step.getContentLayout();
+        if (contentLayout != null && contentLayout.getParent() instanceof ViewGroup) {
+            ((ViewGroup) contentLayout.getParent()).removeView(contentLayout);
+        }
+
+        // The layout might be reused by another form, so it must not keep references to this one
+        headerView.setOnClickListener(null);
+        nextButtonView.setOnClickListener(null);
+        cancelButtonView.setOnClickListener(null);
+
+        stepNumberCircleView = null;
+        titleView = null;
+        subtitleView = null;
+        stepNumberTextView = null;
+        doneIconView = null;
+        validationProgressView = null;
+        errorMessageView = null;
+        errorIconView = null;
+        headerView = null;
+        stepHeaderView = null;
+        nextButtonView = null;
+        cancelButtonView = null;
+        lineView1 = null;
+        lineView2 = null;
+        stepAndButtonView = null;
+        errorMessageContainerView = null;
+        titleAndSubtitleContainerView = null;
+        errorContentAndButtonContainerView = null;
+
+        step.setEntireStepLayoutInternal(null);
+    }
+
+    /**
+     * Finishes the slide animations of the views of the step, leaving the views in their final
+     * state.
+     */
+    void finishSlideAnimations() {
+        if (stepAndButtonView != null) {
+            slideAnimationScheduler.finishSlide(stepAndButtonView);
+        }
+        if (subtitleView != null) {
+            slideAnimationScheduler.finishSlide(subtitleView);
+        }
+        if (stepHeaderView != null) {
+            stepHeaderView.finishSubtitleAnimation();
+        }
+        if (errorMessageContainerView != null) {
+            slideAnimationScheduler.finishSlide(errorMessageContainerView);
+        }
+    }
+
+    private void setupStepViews(final VerticalStepperFormView form, View stepLayout) {
+        headerView = stepLayout.findViewById(R.id.step_header);
+        stepHeaderView = headerView instanceof StepHeaderView ? (StepHeaderView) headerView : null;
+        if (stepHeaderView == null) {
+            stepNumberCircleView = stepLayout.findViewById(R.id.step_number_circle);
+            stepNumberTextView = stepLayout.findViewById(R.id.step_number);
+            titleView = stepLayout.findViewById(R.id.step_title);
+            subtitleView = stepLayout.findViewById(R.id.step_subtitle);
+            doneIconView = stepLayout.findViewById(R.id.step_done_icon);
+            validationProgressView = stepLayout.findViewById(R.id.step_validation_progress);
+            lineView1 = stepLayout.findViewById(R.id.line1);
+            titleAndSubtitleContainerView = stepLayout.findViewById(R.id.title_subtitle_container);
+        }
         errorMessageView = stepLayout.findViewById(R.id.step_error_message);
         errorIconView = stepLayout.findViewById(R.id.step_error_icon);
-        headerView = stepLayout.findViewById(R.id.step_header);
         nextButtonView = stepLayout.findViewById(R.id.step_button);
         cancelButtonView = stepLayout.findViewById(R.id.step_cancel_button);
-        lineView1 = stepLayout.findViewById(R.id.line1);
         lineView2 = stepLayout.findViewById(R.id.line2);
-        stepAndButtonView = step.getEntireStepLayout().findViewById(R.id.step_content_and_button);
-        errorMessageContainerView = step.getEntireStepLayout().findViewById(R.id.step_error_container);
-        titleAndSubtitleContainerView = step.getEntireStepLayout().findViewById(R.id.title_subtitle_container);
-        errorContentAndButtonContainerView = step.getEntireStepLayout().findViewById(R.id.error_content_button_container);
+        stepAndButtonView = stepLayout.findViewById(R.id.step_content_and_button);
+        errorMessageContainerView = stepLayout.findViewById(R.id.step_error_container);
+        errorContentAndButtonContainerView = stepLayout.findViewById(R.id.error_content_button_container);
 
-        stepNumberTextView.setTypeface(formStyle.stepNumberFontFamily);
-        titleView.setTypeface(formStyle.stepTitleFontFamily);
-        subtitleView.setTypeface(formStyle.stepSubtitleFontFamily);
-        errorMessageView.setTypeface(formStyle.stepErrorMessageFontFamily);
+        if (stepHeaderView != null) {
+            // The custom header draws all its elements according to the style by itself
+            stepHeaderView.setup(formStyle, formStyleCache);
+        } else {
+            setupHeaderViews();
+        }
 
-        titleView.setTextColor(formStyle.stepTitleTextColor);
-        subtitleView.setTextColor(formStyle.stepSubtitleTextColor);
-        stepNumberTextView.setTextColor(formStyle.stepNumberTextColor);
-        doneIconView.setColorFilter(formStyle.stepNumberTextColor);
+        errorMessageView.setTypeface(formStyle.stepErrorMessageFontFamily);
         errorMessageView.setTextColor(formStyle.errorMessageTextColor);
         errorIconView.setColorFilter(formStyle.errorMessageTextColor);
-
-        Drawable circleDrawable = ContextCompat.getDrawable(form.getContext(), R.drawable.circle_step_done);
-        circleDrawable.setColorFilter(
-                new PorterDuffColorFilter(formStyle.stepNumberBackgroundColor, PorterDuff.Mode.SRC_IN));
-        stepNumberCircleView.setBackground(circleDrawable);
+        errorMessageView.setTextSize(TypedValue.COMPLEX_UNIT_PX, formStyle.stepErrorMessageTextSizeInPx);
 
         UIHelper.setButtonColor(
                 nextButtonView,
+                formStyleCache,
                 formStyle.nextButtonBackgroundColor,
                 formStyle.nextButtonTextColor,
                 formStyle.nextButtonPressedBackgroundColor,
                 formStyle.nextButtonPressedTextColor);
         UIHelper.setButtonColor(
                 cancelButtonView,
+                formStyleCache,
                 formStyle.lastStepCancelButtonBackgroundColor,
                 formStyle.lastStepCancelButtonTextColor,
                 formStyle.lastStepCancelButtonPressedBackgroundColor,
                 formStyle.lastStepCancelButtonPressedTextColor);
 
-        ViewGroup.LayoutParams layoutParamsCircle = stepNumberCircleView.getLayoutParams();
-        layoutParamsCircle.width = formStyle.leftCircleSizeInPx;
-        layoutParamsCircle.height = formStyle.leftCircleSizeInPx;
-        stepNumberCircleView.setLayoutParams(layoutParamsCircle);
-
-        ViewGroup.LayoutParams layoutParamsLine1 = lineView1.getLayoutParams();
-        layoutParamsLine1.width = formStyle.leftVerticalLineThicknessSizeInPx;
-        lineView1.setLayoutParams(layoutParamsLine1);
-
-        ViewGroup.LayoutParams layoutParamsLine2 = lineView2.getLayoutParams();
-        layoutParamsLine2.width = formStyle.leftVerticalLineThicknessSizeInPx;
-        lineView2.setLayoutParams(layoutParamsLine2);
-
-        LinearLayout.LayoutParams titleAndSubtitleContainerLayoutParams =
-                (LinearLayout.LayoutParams) titleAndSubtitleContainerView.getLayoutParams();
-        titleAndSubtitleContainerLayoutParams.setMarginStart(formStyle.marginFromStepNumbersToContentInPx);
-        titleAndSubtitleContainerView.setLayoutParams(titleAndSubtitleContainerLayoutParams);
+        int marginFromLineToContent = formStyle.marginFromStepNumbersToContentInPx;
+        if (stepHeaderView != null) {
+            // In the flat layout, the line is not wrapped in a container as wide as the circle
+            int marginFromCircleToLine = (formStyle.leftCircleSizeInPx - formStyle.leftVerticalLineThicknessSizeInPx) / 2;
+            marginFromLineToContent += formStyle.leftCircleSizeInPx
+                    - marginFromCircleToLine
+                    - formStyle.leftVerticalLineThicknessSizeInPx;
+
+            LinearLayout.LayoutParams layoutParamsLine2 = (LinearLayout.LayoutParams) lineView2.getLayoutParams();
+            layoutParamsLine2.width = formStyle.leftVerticalLineThicknessSizeInPx;
+            layoutParamsLine2.setMarginStart(marginFromCircleToLine);
+            lineView2.setLayoutParams(layoutParamsLine2);
+        } else {
+            ViewGroup.LayoutParams layoutParamsLine2 = lineView2.getLayoutParams();
+            layoutParamsLine2.width = formStyle.leftVerticalLineThicknessSizeInPx;
+            lineView2.setLayoutParams(layoutParamsLine2);
+        }
 
         LinearLayout.LayoutParams errorContentAndButtonContainerLayoutParams =
                 (LinearLayout.LayoutParams) errorContentAndButtonContainerView.getLayoutParams();
-        errorContentAndButtonContainerLayoutParams.setMarginStart(formStyle.marginFromStepNumbersToContentInPx);
+        errorContentAndButtonContainerLayoutParams.setMarginStart(marginFromLineToContent);
         errorContentAndButtonContainerView.setLayoutParams(errorContentAndButtonContainerLayoutParams);
 
-        stepNumberTextView.setTextSize(TypedValue.COMPLEX_UNIT_PX, formStyle.leftCircleTextSizeInPx);
-        titleView.setTextSize(TypedValue.COMPLEX_UNIT_PX, formStyle.stepTitleTextSizeInPx);
-        subtitleView.setTextSize(TypedValue.COMPLEX_UNIT_PX, formStyle.stepSubtitleTextSizeInPx);
-        errorMessageView.setTextSize(TypedValue.COMPLEX_UNIT_PX, formStyle.stepErrorMessageTextSizeInPx);
-
         headerView.setOnClickListener(view -> {
             if (formStyle.allowStepOpeningOnHeaderClick) {
                 form.goToStep(form.getStepPosition(step), true);
@@ -171,56 +295,101 @@ class StepHelper implements Step.InternalFormStepListener {
         int position = form.getStepPosition(step);
         boolean isLast = (position + 1) == form.getTotalNumberOfSteps();
 
-        String title = !isConfirmationStep()
-                ? step.getTitle()
-                : formStyle.confirmationStepTitle;
-        String subtitle = !isConfirmationStep()
-                ? step.getSubtitle()
-                : formStyle.confirmationStepSubtitle;
-        String stepNextButtonText = !step.getNextButtonText().isEmpty()
-                ? step.getNextButtonText()
-                : isLast ? formStyle.lastStepNextButtonText : formStyle.stepNextButtonText;
-
-        stepNumberTextView.setText(String.valueOf(position + 1));
-        step.updateTitle(title, false);
-        step.updateSubtitle(subtitle, false);
-        step.updateNextButtonText(stepNextButtonText, false);
+        updateStepNumber(position);
+        updateTitleTextViewValue();
+        updateButtonTextValue();
+        updateErrorMessageTextViewValue();
 
+        // The views might have been used by another step before, so we set their visibility explicitly
         if (formStyle.displayCancelButtonInLastStep && isLast) {
             String cancelButtonText = formStyle.lastStepCancelButtonText == null
                     ? "" : formStyle.lastStepCancelButtonText;
             cancelButtonView.setText(cancelButtonText);
             cancelButtonView.setVisibility(View.VISIBLE);
+        } else {
+            cancelButtonView.setVisibility(View.GONE);
         }
 
-        if (!formStyle.displayNextButtonInLastStep && isLast) {
-            nextButtonView.setVisibility(View.GONE);
-        }
+        boolean hideNextButton = (!formStyle.displayNextButtonInLastStep && isLast)
+                || (!formStyle.displayStepButtons && !isConfirmationStep());
+        nextButtonView.setVisibility(hideNextButton ? View.GONE : View.VISIBLE);
 
-        if (!formStyle.displayStepButtons && !isConfirmationStep()) {
-            nextButtonView.setVisibility(View.GONE);
-        }
+        updateLinesVisibility(isLast);
+
+        // The views are about to reflect the current state of the step, so nothing is pending
+        pendingViewUpdates = 0;
+        animatePendingViewUpdates = false;
+
+        updateNextButtonEnabledState();
+        updateStepVisibilityViews(false);
+        applyFormRestrictionsToButtons(form);
+    }
 
-        if (isLast) {
-            lineView1.setVisibility(View.GONE);
-            lineView2.setVisibility(View.GONE);
+    private void setupHeaderViews() {
+        stepNumberTextView.setTypeface(formStyle.stepNumberFontFamily);
+        titleView.setTypeface(formStyle.stepTitleFontFamily);
+        subtitleView.setTypeface(formStyle.stepSubtitleFontFamily);
+
+        titleView.setTextColor(formStyle.stepTitleTextColor);
+        subtitleView.setTextColor(formStyle.stepSubtitleTextColor);
+        stepNumberTextView.setTextColor(formStyle.stepNumberTextColor);
+        doneIconView.setColorFilter(formStyle.stepNumberTextColor);
+
+        stepNumberCircleView.setBackground(formStyleCache.getStepCircleDrawable(formStyle.stepNumberBackgroundColor));
+
+        ViewGroup.LayoutParams layoutParamsCircle = stepNumberCircleView.getLayoutParams();
+        layoutParamsCircle.width = formStyle.leftCircleSizeInPx;
+        layoutParamsCircle.height = formStyle.leftCircleSizeInPx;
+        stepNumberCircleView.setLayoutParams(layoutParamsCircle);
+
+        ViewGroup.LayoutParams layoutParamsLine1 = lineView1.getLayoutParams();
+        layoutParamsLine1.width = formStyle.leftVerticalLineThicknessSizeInPx;
+        lineView1.setLayoutParams(layoutParamsLine1);
+
+        LinearLayout.LayoutParams titleAndSubtitleContainerLayoutParams =
+                (LinearLayout.LayoutParams) titleAndSubtitleContainerView.getLayoutParams();
+        titleAndSubtitleContainerLayoutParams.setMarginStart(formStyle.marginFromStepNumbersToContentInPx);
+        titleAndSubtitleContainerView.setLayoutParams(titleAndSubtitleContainerLayoutParams);
+
+        stepNumberTextView.setTextSize(TypedValue.COMPLEX_UNIT_PX, formStyle.leftCircleTextSizeInPx);
+        titleView.setTextSize(TypedValue.COMPLEX_UNIT_PX, formStyle.stepTitleTextSizeInPx);
+        subtitleView.setTextSize(TypedValue.COMPLEX_UNIT_PX, formStyle.stepSubtitleTextSizeInPx);
+    }
+
+    private void updateStepNumber(int position) {
+        if (stepHeaderView != null) {
+            stepHeaderView.setStepNumber(position + 1);
+        } else {
+            stepNumberTextView.setText(String.valueOf(position + 1));
         }
+    }
 
-        onUpdatedStepCompletionState(position, false);
-        onUpdatedStepVisibility(position, false);
+    private void updateLinesVisibility(boolean isLast) {
+        if (stepHeaderView != null) {
+            stepHeaderView.setDisplayLine(!isLast);
+        } else {
+            lineView1.setVisibility(isLast ? View.GONE : View.VISIBLE);
+        }
+        lineView2.setVisibility(isLast ? View.GONE : View.VISIBLE);
     }
 
     void updateStepViewsAfterPositionChange(VerticalStepperFormView form) {
         int position = form.getStepPosition(step);
         boolean isLast = (position + 1) == form.getTotalNumberOfSteps();
 
-        stepNumberTextView.setText(String.valueOf(position + 1));
-
         String stepNextButtonText = !step.getOriginalNextButtonText().isEmpty()
                 ? step.getOriginalNextButtonText()
                 : isLast ? formStyle.lastStepNextButtonText : formStyle.stepNextButtonText;
         step.updateNextButtonText(stepNextButtonText, false);
 
+        if (step.getEntireStepLayout() == null) {
+            // The views will be updated once they get bound to the step
+            onUpdatedStepVisibility(position, false);
+            return;
+        }
+
+        updateStepNumber(position);
+
         if (formStyle.displayCancelButtonInLastStep && isLast) {
             String cancelButtonText = formStyle.lastStepCancelButtonText == null
                     ? "" : formStyle.lastStepCancelButtonText;
@@ -243,8 +412,7 @@ class StepHelper implements Step.InternalFormStepListener {
             }
         }
 
-        lineView1.setVisibility(isLast ? View.GONE : View.VISIBLE);
-        lineView2.setVisibility(isLast ? View.GONE : View.VISIBLE);
+        updateLinesVisibility(isLast);
 
         onUpdatedStepCompletionState(position, false);
         onUpdatedStepVisibility(position, false);
@@ -256,14 +424,14 @@ class StepHelper implements Step.InternalFormStepListener {
 
     @Override
     public void onUpdatedTitle(int stepPosition, boolean useAnimations) {
-        if (step.getEntireStepLayout() != null) {
+        if (step.getEntireStepLayout() != null && !deferViewUpdate(PENDING_TITLE_UPDATE, useAnimations)) {
             updateTitleTextViewValue();
         }
     }
 
     @Override
     public void onUpdatedSubtitle(int stepPosition, boolean useAnimations) {
-        if (step.getEntireStepLayout() != null) {
+        if (step.getEntireStepLayout() != null && !deferViewUpdate(PENDING_SUBTITLE_UPDATE, useAnimations)) {
             if (updateSubtitleTextViewValue()) {
                 updateSubtitleVisibility(useAnimations);
             }
@@ -272,14 +440,14 @@ class StepHelper implements Step.InternalFormStepListener {
 
     @Override
     public void onUpdatedButtonText(int stepPosition, boolean useAnimations) {
-        if (step.getEntireStepLayout() != null) {
+        if (step.getEntireStepLayout() != null && !deferViewUpdate(PENDING_BUTTON_TEXT_UPDATE, useAnimations)) {
             updateButtonTextValue();
         }
     }
 
     @Override
     public void onUpdatedErrorMessage(int stepPosition, boolean useAnimations) {
-        if (step.getEntireStepLayout() != null) {
+        if (step.getEntireStepLayout() != null && !deferViewUpdate(PENDING_ERROR_MESSAGE_UPDATE, useAnimations)) {
             if (updateErrorMessageTextViewValue()) {
                 updateErrorMessageVisibility(useAnimations);
             }
@@ -288,44 +456,153 @@ class StepHelper implements Step.InternalFormStepListener {
 
     @Override
     public void onUpdatedStepVisibility(int stepPosition, boolean useAnimations) {
-        if (step.getEntireStepLayout() != null) {
-            if (step.isOpen()) {
-                UIHelper.slideDownIfNecessary(stepAndButtonView, useAnimations);
-
-                // As soon as the step opens, we update its completion state
-                boolean wasCompleted = step.isCompleted();
-                boolean isCompleted = step.markAsCompletedOrUncompleted(useAnimations);
-                if (isCompleted == wasCompleted) {
-                    updateHeader(useAnimations);
-                }
-            } else {
-                UIHelper.slideUpIfNecessary(stepAndButtonView, useAnimations);
+        boolean viewsUpdateDeferred = step.getEntireStepLayout() != null
+                && deferViewUpdate(PENDING_VISIBILITY_UPDATE, useAnimations);
+
+        if (step.isOpen()) {
+            createContentLayoutIfNecessary();
+            if (step.getEntireStepLayout() != null && !viewsUpdateDeferred) {
+                slideDownIfNecessary(stepAndButtonView, useAnimations);
+            }
+
+            // As soon as the step opens, we update its completion state, even if its views are not
+            // bound at the moment
+            boolean wasCompleted = step.isCompleted();
+            boolean isCompleted = step.markAsCompletedOrUncompleted(useAnimations);
+            if (isCompleted == wasCompleted && step.getEntireStepLayout() != null && !viewsUpdateDeferred) {
                 updateHeader(useAnimations);
             }
+        } else if (step.getEntireStepLayout() != null && !viewsUpdateDeferred) {
+            slideUpIfNecessary(stepAndButtonView, useAnimations);
+            updateHeader(useAnimations);
         }
     }
 
     @Override
     public void onUpdatedStepCompletionState(int stepPosition, boolean useAnimations) {
-        if (step.getEntireStepLayout() != null) {
-            if (step.isCompleted()) {
-                enableNextButton();
+        if (step.getEntireStepLayout() != null
+                && !deferViewUpdate(PENDING_COMPLETION_STATE_UPDATE, useAnimations)) {
+            updateNextButtonEnabledState();
+            updateHeader(useAnimations);
+        }
+    }
+
+    @Override
+    public void onUpdatedStepData(int stepPosition) {
+        // The views of the step don't display its data, so there is nothing to update here
+    }
+
+    @Override
+    public void onUpdatedValidationState(int stepPosition, boolean useAnimations) {
+        if (step.getEntireStepLayout() != null
+                && !deferViewUpdate(PENDING_COMPLETION_STATE_UPDATE, useAnimations)) {
+            updateNextButtonEnabledState();
+            applyFormRestrictionsToButtons(step.getFormView());
+            updateHeader(useAnimations);
+        }
+    }
+
+    /**
+     * Applies the view updates that were deferred until the next frame. Since the views are updated
+     * according to the current state of the step, any intermediate state is simply skipped.
+     */
+    void applyPendingViewUpdates() {
+        int viewUpdates = pendingViewUpdates;
+        boolean useAnimations = animatePendingViewUpdates;
+        pendingViewUpdates = 0;
+        animatePendingViewUpdates = false;
+
+        if (viewUpdates == 0 || step.getEntireStepLayout() == null) {
+            return;
+        }
+
+        if ((viewUpdates & PENDING_TITLE_UPDATE) != 0) {
+            updateTitleTextViewValue();
+        }
+        if ((viewUpdates & PENDING_BUTTON_TEXT_UPDATE) != 0) {
+            updateButtonTextValue();
+        }
+        if ((viewUpdates & PENDING_ERROR_MESSAGE_UPDATE) != 0) {
+            updateErrorMessageTextViewValue();
+        }
+
+        if ((viewUpdates & (PENDING_VISIBILITY_UPDATE | PENDING_COMPLETION_STATE_UPDATE)) != 0) {
+            if ((viewUpdates & PENDING_COMPLETION_STATE_UPDATE) != 0) {
+                updateNextButtonEnabledState();
+                applyFormRestrictionsToButtons(step.getFormView());
+            }
+
+            // The header update already takes care of the subtitle and the error message
+            if ((viewUpdates & PENDING_VISIBILITY_UPDATE) != 0) {
+                updateStepVisibilityViews(useAnimations);
             } else {
-                disableNextButton();
+                updateHeader(useAnimations);
+            }
+        } else {
+            if ((viewUpdates & PENDING_SUBTITLE_UPDATE) != 0) {
+                updateSubtitleTextViewValue();
+                updateSubtitleVisibility(useAnimations);
+            }
+            if ((viewUpdates & PENDING_ERROR_MESSAGE_UPDATE) != 0) {
+                updateErrorMessageVisibility(useAnimations);
             }
-            updateHeader(useAnimations);
         }
     }
 
+    private boolean deferViewUpdate(int viewUpdate, boolean useAnimations) {
+        if (!formStyle.coalesceStepViewUpdates || viewUpdateScheduler == null) {
+            return false;
+        }
+
+        pendingViewUpdates |= viewUpdate;
+        animatePendingViewUpdates |= useAnimations;
+        viewUpdateScheduler.scheduleUpdate(this);
+
+        return true;
+    }
+
+    private void updateNextButtonEnabledState() {
+        if (canTryToGoToNextStep()) {
+            enableNextButton();
+        } else {
+            disableNextButton();
+        }
+    }
+
+    private void applyFormRestrictionsToButtons(VerticalStepperFormView form) {
+        int position = form.getStepPosition(step);
+        boolean isLast = (position + 1) == form.getTotalNumberOfSteps();
+
+        if (isLast && !form.canTryToCompleteForm()) {
+            disableNextButton();
+        }
+        if (form.isFormCompleted() && step.isOpen()) {
+            disableAllButtons();
+        }
+    }
+
+    private void updateStepVisibilityViews(boolean useAnimations) {
+        if (step.isOpen()) {
+            slideDownIfNecessary(stepAndButtonView, useAnimations);
+        } else {
+            slideUpIfNecessary(stepAndButtonView, useAnimations);
+        }
+        updateHeader(useAnimations);
+    }
+
     private void updateHeader(boolean useAnimations) {
 
         // Update alpha of header elements
         boolean enableHeader = step.isOpen() || step.isCompleted();
         float alpha = enableHeader ? 1f : formStyle.alphaOfDisabledElements;
         float subtitleAlpha = enableHeader ? 1f : 0f;
-        titleView.setAlpha(alpha);
-        subtitleView.setAlpha(subtitleAlpha);
-        stepNumberCircleView.setAlpha(alpha);
+        if (stepHeaderView != null) {
+            stepHeaderView.setElementsAlpha(alpha, subtitleAlpha);
+        } else {
+            titleView.setAlpha(alpha);
+            subtitleView.setAlpha(subtitleAlpha);
+            stepNumberCircleView.setAlpha(alpha);
+        }
 
         // Update background color of left circle
         int stepNumberBackgroundColor = !step.hasError()
@@ -337,14 +614,19 @@ class StepHelper implements Step.InternalFormStepListener {
             stepNumberBackgroundColor = formStyle.backgroundColorOfDisabledElements;
         }
 
-        Drawable circleDrawable = ContextCompat.getDrawable(stepNumberCircleView.getContext(),
-                R.drawable.circle_step_done);
-        circleDrawable.setColorFilter(
-                new PorterDuffColorFilter(stepNumberBackgroundColor, PorterDuff.Mode.SRC_IN));
-        stepNumberCircleView.setBackground(circleDrawable);
+        if (stepHeaderView != null) {
+            stepHeaderView.setCircleColor(stepNumberBackgroundColor);
+        } else {
+            Drawable circleDrawable = formStyleCache.getStepCircleDrawable(stepNumberBackgroundColor);
+            if (stepNumberCircleView.getBackground() != circleDrawable) {
+                stepNumberCircleView.setBackground(circleDrawable);
+            }
+        }
 
         // Update step position circle indicator layout
-        if (step.isOpen() || !step.isCompleted()) {
+        if (step.isValidationPending() && (validationProgressView != null || stepHeaderView != null)) {
+            showValidationProgress();
+        } else if (step.isOpen() || !step.isCompleted()) {
             showStepNumberAndHideDoneIcon();
         } else {
             showDoneIconAndHideStepNumber();
@@ -356,22 +638,56 @@ class StepHelper implements Step.InternalFormStepListener {
     }
 
     private void showDoneIconAndHideStepNumber() {
+        if (stepHeaderView != null) {
+            stepHeaderView.setGlyph(StepHeaderView.GLYPH_DONE);
+            return;
+        }
+
         doneIconView.setVisibility(View.VISIBLE);
         stepNumberTextView.setVisibility(View.GONE);
+        hideValidationProgress();
     }
 
     private void showStepNumberAndHideDoneIcon() {
+        if (stepHeaderView != null) {
+            stepHeaderView.setGlyph(StepHeaderView.GLYPH_NUMBER);
+            return;
+        }
+
         doneIconView.setVisibility(View.GONE);
         stepNumberTextView.setVisibility(View.VISIBLE);
+        hideValidationProgress();
+    }
+
+    private void showValidationProgress() {
+        if (stepHeaderView != null) {
+            stepHeaderView.setGlyph(StepHeaderView.GLYPH_PROGRESS);
+            return;
+        }
+
+        doneIconView.setVisibility(View.GONE);
+        stepNumberTextView.setVisibility(View.GONE);
+        validationProgressView.setVisibility(View.VISIBLE);
+    }
+
+    private void hideValidationProgress() {
+        if (validationProgressView != null) {
+            validationProgressView.setVisibility(View.GONE);
+        }
     }
 
     void enableNextButton() {
+        if (nextButtonView == null) {
+            return;
+        }
+
         nextButtonView.setEnabled(true);
         nextButtonView.setAlpha(1f);
 
         if (formStyle.displayDifferentBackgroundColorOnDisabledElements) {
             UIHelper.setButtonColor(
                     nextButtonView,
+                    formStyleCache,
                     formStyle.nextButtonBackgroundColor,
                     formStyle.nextButtonTextColor,
                     formStyle.nextButtonPressedBackgroundColor,
@@ -380,12 +696,17 @@ class StepHelper implements Step.InternalFormStepListener {
     }
 
     void disableNextButton() {
+        if (nextButtonView == null) {
+            return;
+        }
+
         nextButtonView.setEnabled(false);
         nextButtonView.setAlpha(formStyle.alphaOfDisabledElements);
 
         if (formStyle.displayDifferentBackgroundColorOnDisabledElements) {
             UIHelper.setButtonColor(
                     nextButtonView,
+                    formStyleCache,
                     formStyle.backgroundColorOfDisabledElements,
                     formStyle.nextButtonTextColor,
                     formStyle.backgroundColorOfDisabledElements,
@@ -394,12 +715,17 @@ class StepHelper implements Step.InternalFormStepListener {
     }
 
     void enableCancelButton() {
+        if (cancelButtonView == null) {
+            return;
+        }
+
         cancelButtonView.setEnabled(true);
         cancelButtonView.setAlpha(1f);
 
         if (formStyle.displayDifferentBackgroundColorOnDisabledElements) {
             UIHelper.setButtonColor(
                     cancelButtonView,
+                    formStyleCache,
                     formStyle.lastStepCancelButtonBackgroundColor,
                     formStyle.lastStepCancelButtonTextColor,
                     formStyle.lastStepCancelButtonPressedBackgroundColor,
@@ -408,12 +734,17 @@ class StepHelper implements Step.InternalFormStepListener {
     }
 
     void disableCancelButton() {
+        if (cancelButtonView == null) {
+            return;
+        }
+
         cancelButtonView.setEnabled(false);
         cancelButtonView.setAlpha(formStyle.alphaOfDisabledElements);
 
         if (formStyle.displayDifferentBackgroundColorOnDisabledElements) {
             UIHelper.setButtonColor(
                     cancelButtonView,
+                    formStyleCache,
                     formStyle.backgroundColorOfDisabledElements,
                     formStyle.lastStepCancelButtonTextColor,
                     formStyle.backgroundColorOfDisabledElements,
@@ -422,24 +753,34 @@ class StepHelper implements Step.InternalFormStepListener {
     }
 
     void enableAllButtons() {
-        if (step.isCompleted()) {
+        if (canTryToGoToNextStep()) {
             enableNextButton();
         }
         enableCancelButton();
     }
 
+    private boolean canTryToGoToNextStep() {
+        // A delayed validation is performed right away when trying to go to the next step, so the
+        // step must not wait for it to allow the user to move forward
+        return (step.isCompleted() || step.isDebouncedValidationPendingInternal()) && !step.isValidationPending();
+    }
+
     void disableAllButtons() {
         disableNextButton();
         disableCancelButton();
     }
 
     private boolean updateTitleTextViewValue() {
-        CharSequence previousValue = titleView.getText();
+        CharSequence previousValue = stepHeaderView != null ? stepHeaderView.getTitle() : titleView.getText();
         String previousValueAsString = previousValue == null ? "" : previousValue.toString();
 
         String title = step.getTitle();
         if (!title.equals(previousValueAsString)) {
-            titleView.setText(title);
+            if (stepHeaderView != null) {
+                stepHeaderView.setTitle(title);
+            } else {
+                titleView.setText(title);
+            }
             return true;
         }
 
@@ -447,7 +788,7 @@ class StepHelper implements Step.InternalFormStepListener {
     }
 
     private boolean updateSubtitleTextViewValue() {
-        CharSequence previousValue = subtitleView.getText();
+        CharSequence previousValue = stepHeaderView != null ? stepHeaderView.getSubtitle() : subtitleView.getText();
         String previousValueAsString = previousValue == null ? "" : previousValue.toString();
 
         String subtitle = getActualSubtitleText();
@@ -455,7 +796,12 @@ class StepHelper implements Step.InternalFormStepListener {
             if (!subtitle.isEmpty()) {
                 // We don't update the text view if the subtitle is empty; instead, we leave the last
                 // non-empty subtitle so the text view has text and can be seen while animating to hide
-                subtitleView.setText(subtitle);
+                if (stepHeaderView != null) {
+                    stepHeaderView.setSubtitle(subtitle);
+                } else {
+                    subtitleView.setText(subtitle);
+                    ExpandedHeightCache.invalidate(subtitleView);
+                }
             }
 
             return true;
@@ -498,21 +844,31 @@ class StepHelper implements Step.InternalFormStepListener {
     private void updateSubtitleVisibility(boolean useAnimations) {
         boolean showSubtitle = !getActualSubtitleText().isEmpty()
                 && (step.isOpen() || step.isCompleted());
-        if (showSubtitle) {
-            UIHelper.slideDownIfNecessary(subtitleView, useAnimations);
+        if (stepHeaderView != null) {
+            stepHeaderView.setSubtitleVisible(showSubtitle, useAnimations);
+        } else if (showSubtitle) {
+            slideDownIfNecessary(subtitleView, useAnimations);
         } else {
-            UIHelper.slideUpIfNecessary(subtitleView, useAnimations);
+            slideUpIfNecessary(subtitleView, useAnimations);
         }
     }
 
     private void updateErrorMessageVisibility(boolean useAnimations) {
         if (step.isOpen() && !step.isCompleted() && !step.getErrorMessage().isEmpty()) {
-            UIHelper.slideDownIfNecessary(errorMessageContainerView, useAnimations);
+            slideDownIfNecessary(errorMessageContainerView, useAnimations);
         } else {
-            UIHelper.slideUpIfNecessary(errorMessageContainerView, useAnimations);
+            slideUpIfNecessary(errorMessageContainerView, useAnimations);
         }
     }
 
+    private void slideDownIfNecessary(View view, boolean useAnimations) {
+        slideAnimationScheduler.slideDownIfNecessary(view, useAnimations);
+    }
+
+    private void slideUpIfNecessary(View view, boolean useAnimations) {
+        slideAnimationScheduler.slideUpIfNecessary(view, useAnimations);
+    }
+
     private String getActualSubtitleText() {
         String subtitle = formStyle.displayStepDataInSubtitleOfClosedSteps && !step.isOpen()
                 ? step.getStepDataAsHumanReadableString()
@@ -0,0 +1,209 @@
+package ernestoyaquello.com.verticalstepperform;
+
+import android.content.Context;
+import android.content.MutableContextWrapper;
+import android.os.Looper;
+import android.util.SparseArray;
+import android.view.ContextThemeWrapper;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.LinearLayout;
+
+import java.util.ArrayDeque;
+
+import androidx.annotation.LayoutRes;
+
+/**
+ * Process-wide pool of step layouts that have already been inflated. The forms that reuse their
+ * step layouts (see Builder.reuseStepLayouts()) take their layouts from this pool instead of
+ * inflating them, and give them back once they are destroyed (see
+ * VerticalStepperFormView.releaseStepLayouts()), so opening the same form again doesn't require
+ * inflating anything. The pool can also be filled in advance with prewarm().
+ *
+ * Each pooled layout has its own mutable context, which points to the context of the form that is
+ * using the layout and to the application context while the layout is in the pool, so the pool
+ * never keeps an activity alive. Please note that the layouts keep the theme of the context they
+ * were inflated with, so all the forms that share the pool should use the same theme.
+ *
+ * This class must only be used from the main thread.
+ */
+public final class StepLayoutPool {
+
+    /**
+     * The default maximum number of layouts that can be kept in the pool.
+     */
+    public static final int DEFAULT_MAX_SIZE = 32;
+
+    private static final SparseArray<ArrayDeque<View>> pooledStepLayouts = new SparseArray<>();
+    private static int maxSize = DEFAULT_MAX_SIZE;
+    private static int size;
+
+    private StepLayoutPool() {
+    }
+
+    /**
+     * Inflates step layouts and adds them to the pool until it contains the specified number of
+     * layouts of this type. The layouts are inflated one by one on the main thread, but only while
+     * it is idle, so this can be called at any time without affecting the user interaction.
+     *
+     * @param context The context to inflate the layouts with. It must have the same theme as the
+     *                forms that will use the layouts.
+     * @param stepLayoutResourceId The resource ID of the step layout.
+     * @param numberOfStepLayouts The number of layouts of this type that the pool must contain.
+     */
+    public static void prewarm(Context context, @LayoutRes int stepLayoutResourceId, int numberOfStepLayouts) {
+        // The idle handler may outlive the given context, so it only keeps a copy of its theme
+        Context themedContext = new ContextThemeWrapper(context.getApplicationContext(), 0);
+        themedContext.getTheme().setTo(context.getTheme());
+
+        Looper.myQueue().addIdleHandler(() -> {
+            if (getNumberOfPooledStepLayouts(stepLayoutResourceId) >= numberOfStepLayouts || size >= maxSize) {
+                return false;
+            }
+
+            View stepLayout = inflate(themedContext, stepLayoutResourceId, null);
+            return release(stepLayout);
+        });
+    }
+
+    /**
+     * Sets the maximum number of layouts that can be kept in the pool, discarding the layouts that
+     * go over the new limit.
+     *
+     * @param maxSize The maximum size of the pool.
+     */
+    public static void setMaxSize(int maxSize) {
+        StepLayoutPool.maxSize = maxSize;
+        for (int i = 0; i < pooledStepLayouts.size() && size > maxSize; i++) {
+            ArrayDeque<View> stepLayouts = pooledStepLayouts.valueAt(i);
+            while (!stepLayouts.isEmpty() && size > maxSize) {
+                stepLayouts.pollFirst();
+                size--;
+            }
+        }
+    }
+
+    /**
+     * Discards all the layouts of the pool.
+     */
+    public static void clear() {
+        pooledStepLayouts.clear();
+        size = 0;
+    }
+
+    /**
+     * Gets a layout from the pool, inflating a new one if there is none of this type.
+     *
+     * @param context The context of the form that will use the layout.
+     * @param stepLayoutResourceId The resource ID of the step layout.
+     * @param parent The view group the layout will be added to.
+     * @return The step layout.
+     */
+    static View obtain(Context context, @LayoutRes int stepLayoutResourceId, ViewGroup parent) {
+        View stepLayout = obtainIfAvailable(context, stepLayoutResourceId);
+        return stepLayout != null ? stepLayout : inflate(context, stepLayoutResourceId, parent);
+    }
+
+    /**
+     * Gets a layout from the pool.
+     *
+     * @param context The context of the form that will use the layout.
+     * @param stepLayoutResourceId The resource ID of the step layout.
+     * @return The step layout, or null if there is none of this type in the pool.
+     */
+    static View obtainIfAvailable(Context context, @LayoutRes int stepLayoutResourceId) {
+        ArrayDeque<View> stepLayouts = pooledStepLayouts.get(stepLayoutResourceId);
+        View stepLayout = stepLayouts != null ? stepLayouts.pollLast() : null;
+        if (stepLayout == null) {
+            return null;
+        }
+
+        size--;
+        getEntry(stepLayout).context.setBaseContext(context);
+
+        return stepLayout;
+    }
+
+    /**
+     * Creates the context that must be used to inflate a layout for it to be accepted by the pool.
+     *
+     * @param context The context of the form that will use the layout.
+     * @return The context to inflate the layout with.
+     */
+    static Context createStepLayoutContext(Context context) {
+        return new MutableContextWrapper(context);
+    }
+
+    /**
+     * Registers a layout that was inflated with a context created by createStepLayoutContext(), so
+     * it can be given back to the pool once it is no longer used.
+     *
+     * @param stepLayout The step layout.
+     * @param stepLayoutContext The context the layout was inflated with.
+     * @param stepLayoutResourceId The resource ID of the step layout.
+     */
+    static void register(View stepLayout, Context stepLayoutContext, @LayoutRes int stepLayoutResourceId) {
+        Entry entry = new Entry((MutableContextWrapper) stepLayoutContext, stepLayoutResourceId);
+        stepLayout.setTag(R.id.vertical_stepper_form_step_layout_pool_entry, entry);
+    }
+
+    /**
+     * Gives a layout back to the pool. The layout must have been detached from its step and
+     * removed from its parent.
+     *
+     * @param stepLayout The step layout.
+     * @return True if the layout was added to the pool; false if it wasn't because it cannot be
+     * pooled or because the pool is full.
+     */
+    static boolean release(View stepLayout) {
+        Entry entry = getEntry(stepLayout);
+        if (entry == null || stepLayout.getParent() != null || size >= maxSize) {
+            return false;
+        }
+
+        // The layout must not keep the context of the form alive while it is in the pool
+        entry.context.setBaseContext(entry.context.getApplicationContext());
+
+        ArrayDeque<View> stepLayouts = pooledStepLayouts.get(entry.stepLayoutResourceId);
+        if (stepLayouts == null) {
+            stepLayouts = new ArrayDeque<>();
+            pooledStepLayouts.put(entry.stepLayoutResourceId, stepLayouts);
+        }
+        stepLayouts.addLast(stepLayout);
+        size++;
+
+        return true;
+    }
+
+    private static View inflate(Context context, @LayoutRes int stepLayoutResourceId, ViewGroup parent) {
+        // The layout params are generated by a parent, so we use a temporary one if there is none
+        Context stepLayoutContext = createStepLayoutContext(context);
+        ViewGroup actualParent = parent != null ? parent : new LinearLayout(stepLayoutContext);
+        LayoutInflater inflater = LayoutInflater.from(context).cloneInContext(stepLayoutContext);
+        View stepLayout = inflater.inflate(stepLayoutResourceId, actualParent, false);
+        register(stepLayout, stepLayoutContext, stepLayoutResourceId);
+
+        return stepLayout;
+    }
+
+    private static int getNumberOfPooledStepLayouts(@LayoutRes int stepLayoutResourceId) {
+        ArrayDeque<View> stepLayouts = pooledStepLayouts.get(stepLayoutResourceId);
+        return stepLayouts != null ? stepLayouts.size() : 0;
+    }
+
+    private static Entry getEntry(View stepLayout) {
+        return (Entry) stepLayout.getTag(R.id.vertical_stepper_form_step_layout_pool_entry);
+    }
+
+    private static class Entry {
+
+        private final MutableContextWrapper context;
+        private final int stepLayoutResourceId;
+
+        Entry(MutableContextWrapper context, int stepLayoutResourceId) {
+            this.context = context;
+            this.stepLayoutResourceId = stepLayoutResourceId;
+        }
+    }
+}
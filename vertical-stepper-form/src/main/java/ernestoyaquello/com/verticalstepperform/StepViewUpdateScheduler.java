@@ -0,0 +1,71 @@
+package ernestoyaquello.com.verticalstepperform;
+
+import android.view.Choreographer;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * This class collects the step helpers whose views need to be updated and updates them all at once
+ * on the next frame. This way, if the state of a step changes several times before the next frame,
+ * only its final state will be rendered.
+ */
+class StepViewUpdateScheduler implements Choreographer.FrameCallback {
+
+    private final Set<StepHelper> dirtyStepHelpers;
+    private boolean frameCallbackPosted;
+
+    StepViewUpdateScheduler() {
+        this.dirtyStepHelpers = new LinkedHashSet<>();
+    }
+
+    void scheduleUpdate(StepHelper stepHelper) {
+        dirtyStepHelpers.add(stepHelper);
+
+        if (!frameCallbackPosted) {
+            frameCallbackPosted = true;
+            Choreographer.getInstance().postFrameCallback(this);
+        }
+    }
+
+    /**
+     * Updates the views of all the pending step helpers right away instead of waiting for the next
+     * frame.
+     */
+    void flushNow() {
+        removeFrameCallback();
+        flush();
+    }
+
+    void cancel() {
+        removeFrameCallback();
+        dirtyStepHelpers.clear();
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        frameCallbackPosted = false;
+        flush();
+    }
+
+    private void flush() {
+        // Updating the views of a step might mark other steps as dirty, so we repeat until none is
+        while (!dirtyStepHelpers.isEmpty()) {
+            List<StepHelper> stepHelpersToUpdate = new ArrayList<>(dirtyStepHelpers);
+            dirtyStepHelpers.clear();
+
+            for (StepHelper stepHelper : stepHelpersToUpdate) {
+                stepHelper.applyPendingViewUpdates();
+            }
+        }
+    }
+
+    private void removeFrameCallback() {
+        if (frameCallbackPosted) {
+            frameCallbackPosted = false;
+            Choreographer.getInstance().removeFrameCallback(this);
+        }
+    }
+}
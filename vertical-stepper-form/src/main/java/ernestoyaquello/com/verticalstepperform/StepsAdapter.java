@@ -0,0 +1,89 @@
+package ernestoyaquello.com.verticalstepperform;
+
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+
+/**
+ * Adapter used by the form when its steps are rendered in virtualized mode. Instead of keeping a
+ * layout for each step, it only binds the layouts of the visible steps, recycling the rest.
+ *
+ * The step helpers keep all the state of the steps, so binding a layout to a step helper is just a
+ * matter of making the views reflect that state.
+ */
+class StepsAdapter extends RecyclerView.Adapter<StepsAdapter.StepViewHolder> {
+
+    private VerticalStepperFormView formView;
+
+    StepsAdapter(VerticalStepperFormView formView) {
+        this.formView = formView;
+    }
+
+    @Override
+    public int getItemCount() {
+        return formView.getTotalNumberOfSteps();
+    }
+
+    @Override
+    public int getItemViewType(int position) {
+        boolean isLast = (position + 1) == formView.getTotalNumberOfSteps();
+        return formView.getStepLayoutResourceId(position, isLast);
+    }
+
+    @NonNull
+    @Override
+    public StepViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        LayoutInflater inflater = LayoutInflater.from(parent.getContext());
+        View stepLayout = inflater.inflate(viewType, parent, false);
+
+        return new StepViewHolder(stepLayout);
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull StepViewHolder holder, int position) {
+        holder.unbind();
+        holder.bind(formView, formView.getStepHelper(position));
+    }
+
+    @Override
+    public void onViewRecycled(@NonNull StepViewHolder holder) {
+        holder.unbind();
+    }
+
+    @Override
+    public boolean onFailedToRecycleView(@NonNull StepViewHolder holder) {
+        // This view won't be reused, but we still need to detach it from its step
+        holder.unbind();
+
+        return false;
+    }
+
+    static class StepViewHolder extends RecyclerView.ViewHolder {
+
+        private StepHelper stepHelper;
+
+        StepViewHolder(@NonNull View stepLayout) {
+            super(stepLayout);
+        }
+
+        void bind(VerticalStepperFormView formView, StepHelper stepHelper) {
+            View previousStepLayout = stepHelper.getStepInstance().getEntireStepLayout();
+            if (previousStepLayout != null) {
+                stepHelper.unbindViews(previousStepLayout);
+            }
+
+            this.stepHelper = stepHelper;
+            stepHelper.bindViews(formView, itemView);
+        }
+
+        void unbind() {
+            if (stepHelper != null) {
+                stepHelper.unbindViews(itemView);
+                stepHelper = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package ernestoyaquello.com.verticalstepperform;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The editor used to add and remove several steps of the form in one go. The changes are applied
+ * in the order in which they were specified, but the views of the form are only updated once,
+ * after all of them have been applied.
+ */
+public class StepsEditor {
+
+    private VerticalStepperFormView formView;
+    private List<StepChange> changes;
+
+    StepsEditor(VerticalStepperFormView formView) {
+        this.formView = formView;
+        this.changes = new ArrayList<>();
+    }
+
+    /**
+     * Adds a step to the form in the specified position.
+     *
+     * @param index The index where the step will be added, taking into account the changes that
+     *              have been specified before this one.
+     * @param stepToAdd The step to add.
+     * @return The editor instance.
+     */
+    public StepsEditor addStep(int index, Step<?> stepToAdd) {
+        changes.add(new StepChange(true, index, stepToAdd));
+
+        return this;
+    }
+
+    /**
+     * Adds several steps to the form, placing them one after the other from the specified position.
+     *
+     * @param index The index where the first step will be added, taking into account the changes
+     *              that have been specified before this one.
+     * @param stepsToAdd The steps to add.
+     * @return The editor instance.
+     */
+    public StepsEditor addSteps(int index, List<Step<?>> stepsToAdd) {
+        for (int i = 0; i < stepsToAdd.size(); i++) {
+            addStep(index + i, stepsToAdd.get(i));
+        }
+
+        return this;
+    }
+
+    /**
+     * Removes the step that is placed at the specified position.
+     *
+     * @param index The index where the step to delete is, taking into account the changes that
+     *              have been specified before this one.
+     * @return The editor instance.
+     */
+    public StepsEditor removeStep(int index) {
+        changes.add(new StepChange(false, index, null));
+
+        return this;
+    }
+
+    /**
+     * Removes several consecutive steps from the form.
+     *
+     * @param index The index where the first step to delete is, taking into account the changes
+     *              that have been specified before this one.
+     * @param numberOfSteps The number of steps to delete.
+     * @return The editor instance.
+     */
+    public StepsEditor removeSteps(int index, int numberOfSteps) {
+        for (int i = 0; i < numberOfSteps; i++) {
+            removeStep(index);
+        }
+
+        return this;
+    }
+
+    /**
+     * Applies all the changes. If any of them cannot be applied, none of them will be. For example,
+     * the changes won't be applied if any of the added steps already belongs to a form or if the
+     * same step is added twice. Once the changes have been applied, onStepsChanged() will be
+     * invoked on the listener.
+     *
+     * @return True if the changes were applied successfully; false otherwise.
+     */
+    public boolean apply() {
+        return formView.applyStepChanges(changes);
+    }
+}
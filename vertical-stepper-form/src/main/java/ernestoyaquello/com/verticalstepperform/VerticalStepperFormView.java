@@ -1,6 +1,8 @@
 package ernestoyaquello.com.verticalstepperform;
 
+import android.app.Activity;
 import android.content.Context;
+import android.content.ContextWrapper;
 import android.content.res.TypedArray;
 import android.graphics.Rect;
 
@@ -8,8 +10,10 @@ import androidx.annotation.LayoutRes;
 import androidx.appcompat.widget.AppCompatImageButton;
 
 import android.graphics.Typeface;
+import android.os.Build;
 import android.os.Bundle;
 import android.os.Parcelable;
+import android.os.SystemClock;
 import android.util.AttributeSet;
 import android.view.LayoutInflater;
 import android.view.View;
@@ -18,14 +22,28 @@ import android.widget.LinearLayout;
 import android.widget.ProgressBar;
 import android.widget.ScrollView;
 
-import java.io.Serializable;
+import java.io.File;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
+import androidx.asynclayoutinflater.view.AsyncLayoutInflater;
 import androidx.core.content.ContextCompat;
 import androidx.core.content.res.ResourcesCompat;
-
+import androidx.core.view.OnApplyWindowInsetsListener;
+import androidx.core.view.ViewCompat;
+import androidx.core.view.WindowInsetsCompat;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.LinearSmoothScroller;
+import androidx.recyclerview.widget.RecyclerView;
+import androidx.recyclerview.widget.SimpleItemAnimator;
+
+import ernestoyaquello.com.verticalstepperform.listener.StepperFormInitializationListener;
 import ernestoyaquello.com.verticalstepperform.listener.StepperFormListener;
 
 /**
@@ -33,22 +51,44 @@ import ernestoyaquello.com.verticalstepperform.listener.StepperFormListener;
  */
 public class VerticalStepperFormView extends LinearLayout {
 
+    private static final long ASYNC_INITIALIZATION_FRAME_BUDGET_MILLIS = 8;
+    private static final int MAX_ASYNC_INFLATIONS_IN_FLIGHT = 4;
+    private static final String SPILLED_STATE_DIRECTORY_NAME = "vertical_stepper_form_state";
+    private static final String DRAFTS_DIRECTORY_NAME = "vertical_stepper_form_drafts";
+
     FormStepListener internalListener;
     FormStyle style;
+    FormState state;
+    StepViewUpdateScheduler viewUpdateScheduler;
+    SlideAnimationScheduler slideAnimationScheduler;
+    FormStyleCache styleCache;
+    StepDependencyGraph dependencyGraph;
 
     private StepperFormListener listener;
     private KeyboardTogglingObserver keyboardTogglingObserver;
     private List<StepHelper> stepHelpers;
+    private Map<Step<?>, Integer> stepPositions;
     private boolean initialized;
+    private boolean stepLayoutsReleased;
+    private boolean releaseStepLayoutsOnDetach;
 
     private LinearLayout formContentView;
     private ScrollView stepsScrollView;
+    private RecyclerView stepsRecyclerView;
+    private StepsAdapter stepsAdapter;
     private ProgressBar progressBar;
     private AppCompatImageButton previousStepButton, nextStepButton;
     private View bottomNavigationView;
 
     private boolean formCompleted;
+    private boolean revalidatingAffectedSteps;
+    private int lastSavedStateSizeInBytes;
+    private FormStateSpillStore spillStore;
+    private String lastSpillToken;
+    private String previousSpillToken;
+    private FormAutosave autosave;
     private boolean keyboardIsOpen;
+    private Rect visibleDisplayFrame;
 
     public VerticalStepperFormView(Context context) {
         super(context);
@@ -194,13 +234,7 @@ public class VerticalStepperFormView extends LinearLayout {
      * @return True if at least one step has been marked as completed; false otherwise.
      */
     public boolean isAnyStepCompleted() {
-        for (int i = 0; i < stepHelpers.size(); i++) {
-            if (stepHelpers.get(i).getStepInstance().isCompleted()) {
-                return true;
-            }
-        }
-
-        return false;
+        return state.getNumberOfCompletedSteps() > 0;
     }
 
     /**
@@ -210,12 +244,17 @@ public class VerticalStepperFormView extends LinearLayout {
      * @return True if all the steps previous to the specified one are marked as completed; false otherwise.
      */
     public boolean areAllPreviousStepsCompleted(int stepPosition) {
-        boolean previousStepsAreCompleted = true;
-        for (int i = stepPosition - 1; i >= 0; i--) {
-            previousStepsAreCompleted &= stepHelpers.get(i).getStepInstance().isCompleted();
-        }
+        return state.areAllPreviousStepsCompleted(stepPosition);
+    }
 
-        return previousStepsAreCompleted;
+    /**
+     * Gets the position of the first step that is not marked as completed.
+     *
+     * @return The position of the first uncompleted step, or -1 if all the steps are completed.
+     */
+    public int getFirstUncompletedStepPosition() {
+        int firstUncompletedStepPosition = state.getFirstUncompletedStepPosition();
+        return firstUncompletedStepPosition < stepHelpers.size() ? firstUncompletedStepPosition : -1;
     }
 
     /**
@@ -224,7 +263,7 @@ public class VerticalStepperFormView extends LinearLayout {
      * @return True if all the steps are marked as completed; false otherwise.
      */
     public boolean areAllStepsCompleted() {
-        return areAllPreviousStepsCompleted(stepHelpers.size());
+        return state.areAllStepsCompleted();
     }
 
     /**
@@ -286,8 +325,14 @@ public class VerticalStepperFormView extends LinearLayout {
         }
 
         int openStepPosition = getOpenStepPosition();
+        if (openStepPosition >= 0 && openStepPosition < stepHelpers.size()) {
+            // Any validation that was delayed must be done now so the navigation relies on valid data
+            stepHelpers.get(openStepPosition).getStepInstance().flushDebouncedValidationInternal();
+        }
+
         if (openStepPosition != stepPosition && stepPosition >= 0 && stepPosition <= stepHelpers.size()) {
-            boolean previousStepsAreCompleted = areAllPreviousStepsCompleted(stepPosition);
+            boolean previousStepsAreCompleted = areAllPreviousStepsCompleted(stepPosition)
+                    && !isValidationPendingBefore(openStepPosition, stepPosition);
             if ((style.allowNonLinearNavigation && stepPosition < stepHelpers.size()) || previousStepsAreCompleted) {
                 openStep(stepPosition, useAnimations);
 
@@ -298,20 +343,26 @@ public class VerticalStepperFormView extends LinearLayout {
         return false;
     }
 
+    /**
+     * If possible, goes to the first step that is not marked as completed, closing the currently
+     * open one and opening the target one.
+     *
+     * @param useAnimations Indicates whether or not the affected steps will be opened/closed using
+     *                      animations.
+     * @return True if the navigation to the step was performed; false otherwise.
+     */
+    public synchronized boolean goToFirstUncompletedStep(boolean useAnimations) {
+        int firstUncompletedStepPosition = getFirstUncompletedStepPosition();
+        return firstUncompletedStepPosition != -1 && goToStep(firstUncompletedStepPosition, useAnimations);
+    }
+
     /**
      * Gets the position of the currently open step.
      *
      * @return The position of the currently open step, counting from 0. -1 if not found.
      */
     public synchronized int getOpenStepPosition() {
-        for (int i = 0; i < stepHelpers.size(); i++) {
-            StepHelper stepHelper = stepHelpers.get(i);
-            if (stepHelper.getStepInstance().isOpen()) {
-                return i;
-            }
-        }
-
-        return -1;
+        return state.getOpenStepPosition();
     }
 
     /**
@@ -339,6 +390,75 @@ public class VerticalStepperFormView extends LinearLayout {
         return null;
     }
 
+    /**
+     * Creates the content layout of the specified step in case it hasn't been created yet.
+     * When the form is set up to create the step content lazily, this method can be used to
+     * prepare the content of a step in advance (e.g., while the app is idle), so it doesn't have
+     * to be created when the user opens the step.
+     *
+     * @param stepPosition The step position.
+     */
+    public void preloadStepContent(int stepPosition) {
+        if (stepPosition >= 0 && stepPosition < stepHelpers.size()) {
+            stepHelpers.get(stepPosition).createContentLayoutIfNecessary();
+        }
+    }
+
+    /**
+     * Applies right away all the pending updates of the step views. When the form is set up to
+     * coalesce the updates of the step views, these updates are only applied once per frame, so
+     * this method can be useful to make sure that the views reflect the state of the steps (e.g.,
+     * in a test).
+     */
+    public void flushPendingStepViewUpdates() {
+        viewUpdateScheduler.flushNow();
+    }
+
+    /**
+     * Gets the size of the state that was saved the last time the state of the form was saved.
+     * Since the saved state has to fit in the limited space available for it, this method can be
+     * used to keep an eye on it (e.g., to decide whether some steps need a codec for their data).
+     *
+     * @return The size of the last saved state in bytes, or 0 if the state hasn't been saved yet.
+     */
+    public int getLastSavedStateSizeInBytes() {
+        return lastSavedStateSizeInBytes;
+    }
+
+    /**
+     * Discards the draft of the form that has been autosaved so far, if any. It should be called
+     * once the data of the form has been saved somewhere else (e.g., after completing the form), so
+     * the draft doesn't get restored the next time the form is initialized.
+     *
+     * Please note that, if the form keeps changing after calling this method, a new draft will be
+     * autosaved.
+     */
+    public void discardAutosavedDraft() {
+        if (autosave != null) {
+            autosave.discard();
+        }
+    }
+
+    /**
+     * Gives the step layouts of the form back to StepLayoutPool so other forms can reuse them. It
+     * should be called once the form is not going to be displayed anymore (e.g., in the method
+     * onDestroyView() of the fragment that contains the form); if the form is still attached to the
+     * window, the layouts will be given back as soon as it gets detached.
+     *
+     * The layouts are given back automatically when the activity of the form gets destroyed, so
+     * this is only needed when the form is destroyed while its activity remains alive. If the form
+     * is displayed again afterwards, it will just take its layouts from the pool again.
+     *
+     * Please note that this method has no effect unless the form reuses its step layouts.
+     */
+    public void releaseStepLayouts() {
+        if (ViewCompat.isAttachedToWindow(this)) {
+            releaseStepLayoutsOnDetach = true;
+        } else {
+            releaseStepLayoutsIfPossible();
+        }
+    }
+
     /**
      * Shows the bottom navigation bar.
      */
@@ -360,10 +480,24 @@ public class VerticalStepperFormView extends LinearLayout {
      * @param smoothScroll Determines whether the scrolling should be smooth or abrupt.
      */
     public void scrollToStepIfNecessary(final int stepPosition, final boolean smoothScroll) {
-        if (stepPosition >= 0 && stepPosition < stepHelpers.size()) {
+        if (style.virtualizeStepViews) {
+            scrollToVirtualizedStepIfNecessary(stepPosition, smoothScroll);
+        } else if (stepPosition >= 0 && stepPosition < stepHelpers.size()) {
             stepsScrollView.post(() -> {
+                if (stepPosition >= stepHelpers.size()) {
+                    return;
+                }
+
+                viewUpdateScheduler.flushNow();
+
+                // The layout of the step might not have been attached yet (e.g., during an
+                // asynchronous initialization), in which case there is nothing to scroll to
                 Step<?> stepInstance = stepHelpers.get(stepPosition).getStepInstance();
                 View stepEntireLayout = stepInstance.getEntireStepLayout();
+                if (stepEntireLayout == null) {
+                    return;
+                }
+
                 View stepContentLayout = stepInstance.getContentLayout();
                 Rect scrollBounds = new Rect();
                 stepsScrollView.getDrawingRect(scrollBounds);
@@ -378,6 +512,34 @@ public class VerticalStepperFormView extends LinearLayout {
         }
     }
 
+    private void scrollToVirtualizedStepIfNecessary(final int stepPosition, final boolean smoothScroll) {
+        if (stepPosition >= 0 && stepPosition < stepHelpers.size()) {
+            stepsRecyclerView.post(() -> {
+                if (stepPosition >= stepHelpers.size()) {
+                    return;
+                }
+
+                // If the step layout is not bound, the step is out of the screen
+                View stepEntireLayout = stepHelpers.get(stepPosition).getStepInstance().getEntireStepLayout();
+                if (stepEntireLayout == null || stepEntireLayout.getTop() < 0) {
+                    LinearLayoutManager layoutManager = (LinearLayoutManager) stepsRecyclerView.getLayoutManager();
+                    if (smoothScroll) {
+                        LinearSmoothScroller smoothScroller = new LinearSmoothScroller(getContext()) {
+                            @Override
+                            protected int getVerticalSnapPreference() {
+                                return SNAP_TO_START;
+                            }
+                        };
+                        smoothScroller.setTargetPosition(stepPosition);
+                        layoutManager.startSmoothScroll(smoothScroller);
+                    } else {
+                        layoutManager.scrollToPositionWithOffset(stepPosition, 0);
+                    }
+                }
+            });
+        }
+    }
+
     /**
      * Scrolls to the top of the currently open step, but only in case its content is not visible.
      *
@@ -448,12 +610,7 @@ public class VerticalStepperFormView extends LinearLayout {
      * @return The number of steps that are currently marked as completed.
      */
     public int refreshFormProgress() {
-        int numberOfCompletedSteps = 0;
-        for (int i = 0; i < stepHelpers.size(); i++) {
-            if (stepHelpers.get(i).getStepInstance().isCompleted()) {
-                ++numberOfCompletedSteps;
-            }
-        }
+        int numberOfCompletedSteps = state.getNumberOfCompletedSteps();
         setProgress(numberOfCompletedSteps);
 
         return numberOfCompletedSteps;
@@ -467,35 +624,11 @@ public class VerticalStepperFormView extends LinearLayout {
      * @return True if the step was added successfully; false otherwise.
      */
     public boolean addStep(int index, Step<?> stepToAdd) {
-        StepHelper lastStep = stepHelpers.get(stepHelpers.size() - 1);
-        int lastAllowedIndex = lastStep.isConfirmationStep() ? stepHelpers.size() - 1 : stepHelpers.size();
-        if (!initialized || formCompleted || index < 0 || index > lastAllowedIndex) {
+        StepChange change = new StepChange(true, index, stepToAdd);
+        if (applyStepChangesInternal(Collections.singletonList(change)) == null) {
             return false;
         }
 
-        StepHelper stepHelper = new StepHelper(internalListener, stepToAdd);
-        stepHelpers.add(index, stepHelper);
-        for (int i = 0; i < stepHelpers.size(); i++) {
-            if (i != index) {
-                StepHelper previouslyExistingStepHelper = stepHelpers.get(i);
-                previouslyExistingStepHelper.updateStepViewsAfterPositionChange(this);
-            }
-        }
-
-        View stepLayout = initializeStepHelper(index);
-        stepToAdd.markAsCompletedOrUncompletedInternal(false, true);
-
-        progressBar.setMax(stepHelpers.size());
-        refreshFormProgress();
-        updateBottomNavigationButtons();
-        enableOrDisableLastStepNextButton();
-
-        formContentView.addView(stepLayout, index);
-        int openStepPosition = getOpenStepPosition();
-        if (!style.allowNonLinearNavigation && !isStepCompleted(index) && index < openStepPosition) {
-            goToStep(index, true);
-        }
-
         listener.onStepAdded(index, stepToAdd);
         return true;
     }
@@ -507,18 +640,166 @@ public class VerticalStepperFormView extends LinearLayout {
      * @return True if the step was deleted successfully; false otherwise.
      */
     public boolean removeStep(int index) {
-        int previousOpenStepPosition = getOpenStepPosition();
+        StepChange change = new StepChange(false, index, null);
+        if (applyStepChangesInternal(Collections.singletonList(change)) == null) {
+            return false;
+        }
 
-        StepHelper lastStep = stepHelpers.get(stepHelpers.size() - 1);
-        int lastAllowedIndex = lastStep.isConfirmationStep() ? stepHelpers.size() - 2 : stepHelpers.size() - 1;
-        if (!initialized || formCompleted || index < 0 || index > lastAllowedIndex || stepHelpers.size() <= 1) {
+        listener.onStepRemoved(index);
+        return true;
+    }
+
+    /**
+     * Adds several steps to the form, placing them one after the other from the specified position.
+     * The views of the form will only be updated once, after all the steps have been added.
+     *
+     * @param index The index where the first step will be added.
+     * @param stepsToAdd The steps to add.
+     * @return True if the steps were added successfully; false otherwise.
+     */
+    public boolean addSteps(int index, List<Step<?>> stepsToAdd) {
+        return editSteps().addSteps(index, stepsToAdd).apply();
+    }
+
+    /**
+     * Removes several consecutive steps from the form. The views of the form will only be updated
+     * once, after all the steps have been removed.
+     *
+     * @param index The index where the first step to delete is.
+     * @param numberOfSteps The number of steps to delete.
+     * @return True if the steps were deleted successfully; false otherwise.
+     */
+    public boolean removeSteps(int index, int numberOfSteps) {
+        return editSteps().removeSteps(index, numberOfSteps).apply();
+    }
+
+    /**
+     * Replaces several consecutive steps of the form with the specified ones. The views of the form
+     * will only be updated once, after all the changes have been applied.
+     *
+     * @param index The index where the first step to replace is.
+     * @param numberOfSteps The number of steps to replace.
+     * @param newSteps The steps that will be placed where the replaced ones were.
+     * @return True if the steps were replaced successfully; false otherwise.
+     */
+    public boolean replaceSteps(int index, int numberOfSteps, List<Step<?>> newSteps) {
+        return editSteps().removeSteps(index, numberOfSteps).addSteps(index, newSteps).apply();
+    }
+
+    /**
+     * Gets an editor that can be used to add and remove several steps in one go. The changes will
+     * be applied in order, but the views of the form will only be updated once, and the listener
+     * will be notified about all of them at the same time through onStepsChanged().
+     *
+     * @return An instance of the steps editor. Use it to specify the changes and apply them.
+     */
+    public StepsEditor editSteps() {
+        return new StepsEditor(this);
+    }
+
+    boolean applyStepChanges(List<StepChange> changes) {
+        List<StepChange> appliedChanges = applyStepChangesInternal(changes);
+        if (appliedChanges == null) {
             return false;
         }
 
-        stepHelpers.remove(index);
-        for (int i = 0; i < stepHelpers.size(); i++) {
-            StepHelper previouslyExistingStepHelper = stepHelpers.get(i);
-            previouslyExistingStepHelper.updateStepViewsAfterPositionChange(this);
+        if (!appliedChanges.isEmpty()) {
+            listener.onStepsChanged(appliedChanges);
+        }
+        return true;
+    }
+
+    private List<StepChange> applyStepChangesInternal(List<StepChange> changes) {
+        if (!initialized || formCompleted || !areStepChangesValid(changes)) {
+            return null;
+        }
+
+        // The dependencies are checked before touching anything so a cycle doesn't leave the form
+        // in an inconsistent state
+        List<Step<?>> resultingSteps = getSteps(stepHelpers);
+        for (StepChange change : changes) {
+            if (change.isAddition()) {
+                resultingSteps.add(change.getIndex(), change.getStep());
+            } else {
+                resultingSteps.remove(change.getIndex());
+            }
+        }
+        dependencyGraph.build(resultingSteps);
+
+        int previousOpenStepPosition = getOpenStepPosition();
+        int removedOpenStepPosition = -1;
+        int firstChangedPosition = stepHelpers.size();
+        StepHelper previousLastStepHelper = stepHelpers.get(stepHelpers.size() - 1);
+        Set<StepHelper> addedStepHelpers = new HashSet<>();
+        List<View> removedStepLayouts = new ArrayList<>();
+        List<StepChange> appliedChanges = new ArrayList<>(changes.size());
+
+        // First, we apply the changes to the list of steps without touching any views
+        for (StepChange change : changes) {
+            int index = change.getIndex();
+            firstChangedPosition = Math.min(firstChangedPosition, index);
+
+            if (change.isAddition()) {
+                Step<?> stepToAdd = change.getStep();
+                StepHelper stepHelper = new StepHelper(internalListener, stepToAdd);
+                stepHelpers.add(index, stepHelper);
+                state.onStepAdded(index, stepToAdd.isOpen(), stepToAdd.isCompleted());
+                addedStepHelpers.add(stepHelper);
+                appliedChanges.add(change);
+            } else {
+                if (getOpenStepPosition() == index) {
+                    removedOpenStepPosition = index;
+                }
+
+                StepHelper removedStepHelper = stepHelpers.remove(index);
+                Step<?> removedStep = removedStepHelper.getStepInstance();
+                removedStep.cancelDebouncedValidationInternal();
+                stepPositions.remove(removedStep);
+                state.onStepRemoved(index);
+                if (!addedStepHelpers.remove(removedStepHelper) && removedStep.getEntireStepLayout() != null) {
+                    removedStepLayouts.add(removedStep.getEntireStepLayout());
+                }
+                appliedChanges.add(new StepChange(false, index, removedStep));
+            }
+
+            if (style.virtualizeStepViews) {
+                if (change.isAddition()) {
+                    stepsAdapter.notifyItemInserted(index);
+                } else {
+                    stepsAdapter.notifyItemRemoved(index);
+                }
+            }
+        }
+        updateStepPositions(firstChangedPosition);
+        if (autosave != null) {
+            autosave.onStepsRestructured();
+        }
+
+        if (!style.virtualizeStepViews) {
+            for (View removedStepLayout : removedStepLayouts) {
+                formContentView.removeView(removedStepLayout);
+            }
+        }
+
+        // Then, we update the steps whose position might have changed and initialize the new ones.
+        // The step placed right before the first change is included because it might have become
+        // the last one.
+        int firstAddedUncompletedStepPosition = -1;
+        for (int i = Math.max(0, firstChangedPosition - 1); i < stepHelpers.size(); i++) {
+            StepHelper stepHelper = stepHelpers.get(i);
+            if (addedStepHelpers.contains(stepHelper)) {
+                View stepLayout = initializeStepHelper(i);
+                Step<?> addedStep = stepHelper.getStepInstance();
+                addedStep.markAsCompletedOrUncompletedInternal(false, true);
+                if (stepLayout != null) {
+                    formContentView.addView(stepLayout, i);
+                }
+                if (firstAddedUncompletedStepPosition == -1 && !addedStep.isCompleted()) {
+                    firstAddedUncompletedStepPosition = i;
+                }
+            } else {
+                stepHelper.updateStepViewsAfterPositionChange(this);
+            }
         }
 
         progressBar.setMax(stepHelpers.size());
@@ -526,14 +807,59 @@ public class VerticalStepperFormView extends LinearLayout {
         updateBottomNavigationButtons();
         enableOrDisableLastStepNextButton();
 
-        formContentView.removeViewAt(index);
+        StepHelper lastStepHelper = stepHelpers.get(stepHelpers.size() - 1);
+        if (style.virtualizeStepViews && lastStepHelper != previousLastStepHelper) {
+            // The layout type depends on whether the step is the last one, so these must be rebound
+            int previousLastStepPosition = getStepPosition(previousLastStepHelper.getStepInstance());
+            if (previousLastStepPosition != -1) {
+                stepsAdapter.notifyItemChanged(previousLastStepPosition);
+            }
+            if (!addedStepHelpers.contains(lastStepHelper)) {
+                stepsAdapter.notifyItemChanged(stepHelpers.size() - 1);
+            }
+        }
+
         int openStepPosition = getOpenStepPosition();
         if (previousOpenStepPosition != -1 && openStepPosition == -1) {
-            int stepToOpen = index > 0 ? index - 1 : 0;
-            goToStep(stepToOpen, true);
+            int stepToOpen = removedOpenStepPosition > 0 ? removedOpenStepPosition - 1 : 0;
+            goToStep(Math.min(stepToOpen, stepHelpers.size() - 1), true);
+        } else if (!style.allowNonLinearNavigation
+                && firstAddedUncompletedStepPosition != -1
+                && firstAddedUncompletedStepPosition < openStepPosition) {
+            goToStep(firstAddedUncompletedStepPosition, true);
+        }
+
+        return appliedChanges;
+    }
+
+    private boolean areStepChangesValid(List<StepChange> changes) {
+        int numberOfSteps = stepHelpers.size();
+        boolean hasConfirmationStep = stepHelpers.get(numberOfSteps - 1).isConfirmationStep();
+        Set<Step<?>> addedSteps = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (StepChange change : changes) {
+            int index = change.getIndex();
+            if (change.isAddition()) {
+                // A step can only be initialized once, so it cannot be added if it already belongs
+                // to a form (including this one) or if it is added twice
+                int lastAllowedIndex = hasConfirmationStep ? numberOfSteps - 1 : numberOfSteps;
+                Step<?> step = change.getStep();
+                if (step == null
+                        || step.getFormView() != null
+                        || !addedSteps.add(step)
+                        || index < 0
+                        || index > lastAllowedIndex) {
+                    return false;
+                }
+                numberOfSteps++;
+            } else {
+                int lastAllowedIndex = hasConfirmationStep ? numberOfSteps - 2 : numberOfSteps - 1;
+                if (index < 0 || index > lastAllowedIndex || numberOfSteps <= 1) {
+                    return false;
+                }
+                numberOfSteps--;
+            }
         }
 
-        listener.onStepRemoved(index);
         return true;
     }
 
@@ -553,21 +879,28 @@ public class VerticalStepperFormView extends LinearLayout {
      * @return The position of the step, or -1 if the step is not found.
      */
     public int getStepPosition(Step<?> step) {
-        for (int i = 0; i < stepHelpers.size(); i++) {
-            if (stepHelpers.get(i).getStepInstance() == step)
-                return i;
-        }
+        Integer position = stepPositions.get(step);
 
-        return -1;
+        return position != null ? position : -1;
     }
 
     private void onConstructed(Context context, AttributeSet attrs, int defStyleAttr) {
         LayoutInflater inflater = LayoutInflater.from(context);
         inflater.inflate(R.layout.vertical_stepper_form_layout, this, true);
 
+        // The views are found here rather than in onFinishInflate(), which is not called when the
+        // form is created programmatically
+        findViews();
+        registerListeners();
+
         keyboardTogglingObserver = new KeyboardTogglingObserver();
+        visibleDisplayFrame = new Rect();
 
         style = new FormStyle();
+        state = new FormState();
+        viewUpdateScheduler = new StepViewUpdateScheduler();
+        slideAnimationScheduler = new SlideAnimationScheduler(style);
+        dependencyGraph = new StepDependencyGraph();
 
         // Set the default values for all the style properties
         style.stepNextButtonText =
@@ -637,6 +970,15 @@ public class VerticalStepperFormView extends LinearLayout {
         style.allowNonLinearNavigation = false;
         style.allowStepOpeningOnHeaderClick = true;
         style.closeLastStepOnCompletion = false;
+        style.virtualizeStepViews = false;
+        style.createStepContentLazily = false;
+        style.coalesceStepViewUpdates = false;
+        style.useTransformBasedSlideAnimations = false;
+        style.useHardwareLayersInSlideAnimations = false;
+        style.maxConcurrentSlideAnimations = 4;
+        style.useFlatStepHeaders = false;
+        style.reuseStepLayouts = false;
+        style.stepDataSpillThresholdInBytes = -1;
         style.alphaOfDisabledElements = 0.3f;
         style.stepNumberFontFamily = Typeface.defaultFromStyle(defStyleAttr);
         style.stepTitleFontFamily = Typeface.defaultFromStyle(defStyleAttr);
@@ -774,6 +1116,33 @@ public class VerticalStepperFormView extends LinearLayout {
             style.closeLastStepOnCompletion = vars.getBoolean(
                     R.styleable.VerticalStepperFormView_form_close_last_step_on_completion,
                     style.closeLastStepOnCompletion);
+            style.virtualizeStepViews = vars.getBoolean(
+                    R.styleable.VerticalStepperFormView_form_virtualize_step_views,
+                    style.virtualizeStepViews);
+            style.createStepContentLazily = vars.getBoolean(
+                    R.styleable.VerticalStepperFormView_form_create_step_content_lazily,
+                    style.createStepContentLazily);
+            style.coalesceStepViewUpdates = vars.getBoolean(
+                    R.styleable.VerticalStepperFormView_form_coalesce_step_view_updates,
+                    style.coalesceStepViewUpdates);
+            style.useTransformBasedSlideAnimations = vars.getBoolean(
+                    R.styleable.VerticalStepperFormView_form_use_transform_based_slide_animations,
+                    style.useTransformBasedSlideAnimations);
+            style.useHardwareLayersInSlideAnimations = vars.getBoolean(
+                    R.styleable.VerticalStepperFormView_form_use_hardware_layers_in_slide_animations,
+                    style.useHardwareLayersInSlideAnimations);
+            style.maxConcurrentSlideAnimations = vars.getInt(
+                    R.styleable.VerticalStepperFormView_form_max_concurrent_slide_animations,
+                    style.maxConcurrentSlideAnimations);
+            style.useFlatStepHeaders = vars.getBoolean(
+                    R.styleable.VerticalStepperFormView_form_use_flat_step_headers,
+                    style.useFlatStepHeaders);
+            style.reuseStepLayouts = vars.getBoolean(
+                    R.styleable.VerticalStepperFormView_form_reuse_step_layouts,
+                    style.reuseStepLayouts);
+            style.stepDataSpillThresholdInBytes = vars.getInt(
+                    R.styleable.VerticalStepperFormView_form_step_data_spill_threshold,
+                    style.stepDataSpillThresholdInBytes);
             style.alphaOfDisabledElements = vars.getFloat(
                     R.styleable.VerticalStepperFormView_form_alpha_of_disabled_elements,
                     style.alphaOfDisabledElements);
@@ -809,8 +1178,66 @@ public class VerticalStepperFormView extends LinearLayout {
     }
 
     void initializeForm(StepperFormListener listener, StepHelper[] stepsArray) {
+        prepareForm(listener, stepsArray);
+
+        for (int i = 0; i < stepHelpers.size(); i++) {
+            View stepLayout = initializeStepHelper(i);
+            if (stepLayout != null) {
+                formContentView.addView(stepLayout);
+            }
+        }
+
+        if (style.virtualizeStepViews) {
+            setUpVirtualizedStepsList();
+        }
+
+        goToStep(0, false);
+
+        initialized = true;
+        restoreAutosavedDraft();
+    }
+
+    void initializeFormAsync(
+            StepperFormListener listener,
+            StepHelper[] stepsArray,
+            StepperFormInitializationListener initializationListener) {
+
+        if (style.virtualizeStepViews) {
+            // In virtualized mode, only the visible steps get their layouts, so there is no need
+            // to inflate anything in the background
+            initializeForm(listener, stepsArray);
+            if (initializationListener != null) {
+                initializationListener.onFormInitialized();
+            }
+
+            return;
+        }
+
+        prepareForm(listener, stepsArray);
+
+        // The state of all the steps is initialized right away so the form can be used normally,
+        // but their layouts will be inflated in the background and attached in small chunks
+        for (int i = 0; i < stepHelpers.size(); i++) {
+            stepHelpers.get(i).initialize(this, false);
+        }
+
+        new AsyncFormInitializer(initializationListener).start();
+    }
+
+    private void prepareForm(StepperFormListener listener, StepHelper[] stepsArray) {
         this.listener = listener;
         this.stepHelpers = new ArrayList<>(Arrays.asList(stepsArray));
+        this.stepPositions = new IdentityHashMap<>();
+        updateStepPositions(0);
+        state.initialize(stepHelpers);
+        dependencyGraph.build(getSteps(stepHelpers));
+        styleCache = new FormStyleCache(getContext(), style);
+
+        if (style.autosaveDraftName != null) {
+            File draftsDirectory = new File(ContextCompat.getNoBackupFilesDir(getContext()), DRAFTS_DIRECTORY_NAME);
+            File journalFile = new File(draftsDirectory, style.autosaveDraftName + ".journal");
+            autosave = new FormAutosave(this, new FormDraftJournal(journalFile));
+        }
 
         progressBar.setMax(stepHelpers.size());
 
@@ -818,40 +1245,91 @@ public class VerticalStepperFormView extends LinearLayout {
         if (!style.displayBottomNavigation) {
             hideBottomNavigation();
         }
-
-        for (int i = 0; i < stepHelpers.size(); i++) {
-            View stepLayout = initializeStepHelper(i);
-            formContentView.addView(stepLayout);
-        }
-
-        goToStep(0, false);
-
-        initialized = true;
     }
 
     private View initializeStepHelper(int position) {
         StepHelper stepHelper = stepHelpers.get(position);
+        if (style.virtualizeStepViews || stepLayoutsReleased) {
+            // In virtualized mode, the step layouts are only bound to the steps when they are visible,
+            // and when the layouts have been given back to the pool, they will be bound on attachment
+            stepHelper.initialize(this);
+
+            return null;
+        }
+
         boolean isLast = (position + 1) == stepHelpers.size();
         int stepLayoutResourceId = getStepLayoutResourceId(position, isLast);
 
         return stepHelper.initialize(this, formContentView, stepLayoutResourceId);
     }
 
+    private List<Step<?>> getSteps(List<StepHelper> stepHelpers) {
+        List<Step<?>> steps = new ArrayList<>(stepHelpers.size());
+        for (StepHelper stepHelper : stepHelpers) {
+            steps.add(stepHelper.getStepInstance());
+        }
+
+        return steps;
+    }
+
+    void revalidateStepsAffectedBy(Step<?> step, boolean useAnimations) {
+        if (!initialized || revalidatingAffectedSteps) {
+            // If we are already revalidating, the affected steps will be revalidated in order anyway
+            return;
+        }
+
+        List<Step<?>> affectedSteps = dependencyGraph.getAffectedSteps(step);
+        if (affectedSteps.isEmpty()) {
+            return;
+        }
+
+        revalidatingAffectedSteps = true;
+        try {
+            for (Step<?> affectedStep : affectedSteps) {
+                if (affectedStep.getFormView() != null) {
+                    affectedStep.revalidateAfterDependencyChangeInternal(useAnimations);
+                }
+            }
+        } finally {
+            revalidatingAffectedSteps = false;
+        }
+    }
+
+    private void setUpVirtualizedStepsList() {
+        stepsScrollView.setVisibility(View.GONE);
+        stepsRecyclerView.setVisibility(View.VISIBLE);
+
+        stepsAdapter = new StepsAdapter(this);
+        stepsRecyclerView.setLayoutManager(new LinearLayoutManager(getContext()));
+        stepsRecyclerView.setAdapter(stepsAdapter);
+
+        // Change animations would bind the same step to two layouts at once, so we disable them
+        RecyclerView.ItemAnimator itemAnimator = stepsRecyclerView.getItemAnimator();
+        if (itemAnimator instanceof SimpleItemAnimator) {
+            ((SimpleItemAnimator) itemAnimator).setSupportsChangeAnimations(false);
+        }
+    }
+
+    private void updateStepPositions(int fromPosition) {
+        // Only the positions of the steps placed after the specified one can have changed
+        for (int i = fromPosition; i < stepHelpers.size(); i++) {
+            stepPositions.put(stepHelpers.get(i).getStepInstance(), i);
+        }
+    }
+
+    StepHelper getStepHelper(int position) {
+        return stepHelpers.get(position);
+    }
+
     @LayoutRes
     protected int getStepLayoutResourceId(int position, boolean isLast) {
         // This could be overridden to use a custom step layout
-        return R.layout.step_layout;
+        return style.useFlatStepHeaders ? R.layout.step_layout_flat : R.layout.step_layout;
     }
 
     private StepHelper getOpenStepHelper() {
-        for (int i = 0; i < stepHelpers.size(); i++) {
-            StepHelper stepHelper = stepHelpers.get(i);
-            if (stepHelper.getStepInstance().isOpen()) {
-                return stepHelper;
-            }
-        }
-
-        return null;
+        int openStepPosition = state.getOpenStepPosition();
+        return openStepPosition != -1 ? stepHelpers.get(openStepPosition) : null;
     }
 
     private synchronized void openStep(int stepToOpenPosition, boolean useAnimations) {
@@ -883,7 +1361,7 @@ public class VerticalStepperFormView extends LinearLayout {
 
             if (!formCompleted
                     && (stepPosition + 1) < stepHelpers.size()
-                    && (style.allowNonLinearNavigation || stepHelper.getStepInstance().isCompleted())) {
+                    && (style.allowNonLinearNavigation || canTryToGoToNextStep(stepHelper.getStepInstance()))) {
                 enableNextButtonInBottomNavigation();
             } else {
                 disableNextButtonInBottomNavigation();
@@ -923,8 +1401,40 @@ public class VerticalStepperFormView extends LinearLayout {
         }
     }
 
+    private boolean isStepCompletedAndValidated(Step<?> step) {
+        return step.isCompleted() && !step.isValidationPending();
+    }
+
+    private boolean canTryToGoToNextStep(Step<?> step) {
+        // A delayed validation is performed right away when trying to go to the next step
+        return isStepCompletedAndValidated(step)
+                || (step.isDebouncedValidationPendingInternal() && !step.isValidationPending());
+    }
+
+    private boolean isValidationPendingBefore(int openStepPosition, int stepPosition) {
+        // The completion state of a step that is being validated might be outdated, so we don't
+        // allow moving past it until its validation has finished
+        return openStepPosition >= 0
+                && openStepPosition < stepPosition
+                && openStepPosition < stepHelpers.size()
+                && stepHelpers.get(openStepPosition).getStepInstance().isValidationPending();
+    }
+
+    boolean canTryToCompleteForm() {
+        if (areAllStepsCompleted()) {
+            return true;
+        }
+
+        // If only the last step is uncompleted but its validation has been delayed, it will be
+        // validated right away when trying to complete the form
+        Step<?> lastStep = stepHelpers.get(stepHelpers.size() - 1).getStepInstance();
+        return !lastStep.isCompleted()
+                && lastStep.isDebouncedValidationPendingInternal()
+                && state.getNumberOfCompletedSteps() == stepHelpers.size() - 1;
+    }
+
     private void enableOrDisableLastStepNextButton() {
-        if (!areAllStepsCompleted()) {
+        if (!canTryToCompleteForm()) {
             stepHelpers.get(stepHelpers.size() - 1).disableNextButton();
         } else {
             stepHelpers.get(stepHelpers.size() - 1).enableNextButton();
@@ -975,17 +1485,10 @@ public class VerticalStepperFormView extends LinearLayout {
         }
     }
 
-    @Override
-    protected void onFinishInflate() {
-        super.onFinishInflate();
-
-        findViews();
-        registerListeners();
-    }
-
     private void findViews() {
         formContentView = findViewById(R.id.content);
         stepsScrollView = findViewById(R.id.steps_scroll);
+        stepsRecyclerView = findViewById(R.id.steps_recycler);
         progressBar = findViewById(R.id.progress_bar);
         previousStepButton = findViewById(R.id.down_previous);
         nextStepButton = findViewById(R.id.down_next);
@@ -995,31 +1498,120 @@ public class VerticalStepperFormView extends LinearLayout {
     private void registerListeners() {
         previousStepButton.setOnClickListener(view -> goToPreviousStep(true));
         nextStepButton.setOnClickListener(view -> goToNextStep(true));
+    }
+
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
 
         addObserverForKeyboard();
+        if (stepLayoutsReleased) {
+            restoreStepLayouts();
+        }
     }
 
     @Override
     protected void onDetachedFromWindow() {
         removeObserverForKeyboard();
+        flushDebouncedValidations();
+        viewUpdateScheduler.flushNow();
+        slideAnimationScheduler.finishAll();
+        if (autosave != null) {
+            autosave.flush();
+        }
+        if (releaseStepLayoutsOnDetach || isActivityBeingDestroyed()) {
+            // A form that is only detached temporarily (e.g., because its fragment goes to the back
+            // stack) keeps its layouts, so it doesn't have to bind them again when reattached
+            releaseStepLayoutsOnDetach = false;
+            releaseStepLayoutsIfPossible();
+        }
 
         super.onDetachedFromWindow();
     }
 
+    private void flushDebouncedValidations() {
+        if (stepHelpers != null) {
+            for (StepHelper stepHelper : stepHelpers) {
+                stepHelper.getStepInstance().flushDebouncedValidationInternal();
+            }
+        }
+    }
+
+    private boolean isActivityBeingDestroyed() {
+        Context context = getContext();
+        while (context instanceof ContextWrapper) {
+            if (context instanceof Activity) {
+                Activity activity = (Activity) context;
+                return activity.isFinishing() || activity.isChangingConfigurations();
+            }
+            context = ((ContextWrapper) context).getBaseContext();
+        }
+
+        return false;
+    }
+
+    private void releaseStepLayoutsIfPossible() {
+        if (!initialized || !style.reuseStepLayouts || style.virtualizeStepViews || stepLayoutsReleased) {
+            return;
+        }
+
+        // The steps keep their state and their content layouts, so only the shells are given back
+        for (StepHelper stepHelper : stepHelpers) {
+            View stepLayout = stepHelper.getStepInstance().getEntireStepLayout();
+            if (stepLayout != null) {
+                stepHelper.unbindViews(stepLayout);
+                formContentView.removeView(stepLayout);
+                StepLayoutPool.release(stepLayout);
+            }
+        }
+
+        stepLayoutsReleased = true;
+    }
+
+    private void restoreStepLayouts() {
+        stepLayoutsReleased = false;
+
+        for (int i = 0; i < stepHelpers.size(); i++) {
+            boolean isLast = (i + 1) == stepHelpers.size();
+            int stepLayoutResourceId = getStepLayoutResourceId(i, isLast);
+            View stepLayout = StepLayoutPool.obtain(getContext(), stepLayoutResourceId, formContentView);
+            stepHelpers.get(i).bindViews(this, stepLayout);
+            formContentView.addView(stepLayout);
+        }
+    }
+
     private void addObserverForKeyboard() {
         keyboardIsOpen = isKeyboardOpen();
-        getRootView().getViewTreeObserver().addOnGlobalLayoutListener(keyboardTogglingObserver);
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.R) {
+            // The visibility of the keyboard is reliably reported by the insets, which only change
+            // when the keyboard actually appears or disappears. They are received through an
+            // internal view so any listener set on the form itself is left untouched.
+            keyboardTogglingObserver.insetsReceived = false;
+            ViewCompat.setOnApplyWindowInsetsListener(stepsScrollView, keyboardTogglingObserver);
+            ViewCompat.requestApplyInsets(this);
+            post(keyboardTogglingObserver::observeLayoutsIfInsetsAreNotReceived);
+        } else {
+            getRootView().getViewTreeObserver().addOnGlobalLayoutListener(keyboardTogglingObserver);
+        }
     }
 
     private void removeObserverForKeyboard() {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.R) {
+            ViewCompat.setOnApplyWindowInsetsListener(stepsScrollView, null);
+        }
         getRootView().getViewTreeObserver().removeOnGlobalLayoutListener(keyboardTogglingObserver);
     }
 
     private boolean isKeyboardOpen() {
-        Rect r = new Rect();
-        formContentView.getWindowVisibleDisplayFrame(r);
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.R) {
+            WindowInsetsCompat insets = ViewCompat.getRootWindowInsets(this);
+            return insets != null && insets.isVisible(WindowInsetsCompat.Type.ime());
+        }
+
+        // On older versions, we assume the keyboard is open when it takes enough space
+        formContentView.getWindowVisibleDisplayFrame(visibleDisplayFrame);
         int screenHeight = formContentView.getRootView().getHeight();
-        int keyboardHeight = screenHeight - r.bottom;
+        int keyboardHeight = screenHeight - visibleDisplayFrame.bottom;
 
         return keyboardHeight > screenHeight * 0.2;
     }
@@ -1028,41 +1620,16 @@ public class VerticalStepperFormView extends LinearLayout {
     public Parcelable onSaveInstanceState() {
         Bundle bundle = new Bundle();
 
-        Serializable[] stepsData = new Serializable[stepHelpers.size()];
-        boolean[] completedSteps = new boolean[stepHelpers.size()];
-        boolean[] errorSteps = new boolean[stepHelpers.size()];
-        String[] titles = new String[stepHelpers.size()];
-        String[] subtitles = new String[stepHelpers.size()];
-        String[] buttonTexts = new String[stepHelpers.size()];
-        String[] errorMessages = new String[stepHelpers.size()];
-        for (int i = 0; i < completedSteps.length; i++) {
-            StepHelper stepHelper = stepHelpers.get(i);
-            Step<?> step = stepHelper.getStepInstance();
-
-            stepsData[i] = step.getStepData();
-            completedSteps[i] = step.isCompleted();
-            errorSteps[i] = step.hasError();
-            titles[i] = step.getTitle();
-            subtitles[i] = step.getSubtitle();
-            buttonTexts[i] = step.getNextButtonText();
-            if (!step.isCompleted()) {
-                errorMessages[i] = step.getErrorMessage();
-            }
+        // The saved completion state of the steps must not depend on validations that were delayed
+        flushDebouncedValidations();
+        byte[] formState = encodeFormState();
+        lastSavedStateSizeInBytes = formState.length;
+        if (autosave != null) {
+            autosave.flush();
         }
 
-        StepHelper openStepHelper = getOpenStepHelper();
-        int openStepPosition = stepHelpers.indexOf(openStepHelper);
-
         bundle.putParcelable("superState", super.onSaveInstanceState());
-        bundle.putInt("openStep", openStepPosition);
-        bundle.putSerializable("stepsData", stepsData);
-        bundle.putBooleanArray("completedSteps", completedSteps);
-        bundle.putBooleanArray("errorSteps", errorSteps);
-        bundle.putStringArray("titles", titles);
-        bundle.putStringArray("subtitles", subtitles);
-        bundle.putStringArray("buttonTexts", buttonTexts);
-        bundle.putStringArray("errorMessages", errorMessages);
-        bundle.putBoolean("formCompleted", formCompleted);
+        bundle.putByteArray("formState", formState);
 
         return bundle;
     }
@@ -1072,62 +1639,105 @@ public class VerticalStepperFormView extends LinearLayout {
         if (state instanceof Bundle) {
             Bundle bundle = (Bundle) state;
 
-            boolean formCompleted = bundle.getBoolean("formCompleted");
-            String[] errorMessages = bundle.getStringArray("errorMessages");
-            String[] buttonTexts = bundle.getStringArray("buttonTexts");
-            String[] subtitles = bundle.getStringArray("subtitles");
-            String[] titles = bundle.getStringArray("titles");
-            boolean[] completedSteps = bundle.getBooleanArray("completedSteps");
-            boolean[] errorSteps = bundle.getBooleanArray("errorSteps");
-            int positionToOpen = bundle.getInt("openStep");
-            Serializable[] stepsData = (Serializable[])bundle.getSerializable("stepsData");
+            byte[] formState = bundle.getByteArray("formState");
             state = bundle.getParcelable("superState");
 
-            restoreFromState(
-                    stepsData,
-                    positionToOpen,
-                    completedSteps,
-                    errorSteps,
-                    titles,
-                    subtitles,
-                    buttonTexts,
-                    errorMessages,
-                    formCompleted);
+            FormStateCodec.SavedFormState savedState = formState != null
+                    ? FormStateCodec.decode(formState, stepHelpers, getSpillStore())
+                    : null;
+            if (savedState != null) {
+                restoreFromState(savedState);
+            }
         }
 
         super.onRestoreInstanceState(state);
     }
 
-    private void restoreFromState(
-            Serializable[] stepsData,
-            int positionToOpen,
-            boolean[] completedSteps,
-            boolean[] errorSteps,
-            String[] titles,
-            String[] subtitles,
-            String[] buttonTexts,
-            String[] errorMessages,
-            boolean formCompleted) {
+    private void restoreAutosavedDraft() {
+        if (autosave != null) {
+            FormStateCodec.SavedFormState draft = autosave.readDraft(stepHelpers);
+            if (draft != null) {
+                restoreFromState(draft);
+            }
+        }
+    }
+
+    private byte[] encodeFormState() {
+        FormStateCodec.SpillBuffer spillBuffer = style.stepDataSpillThresholdInBytes >= 0
+                ? new FormStateCodec.SpillBuffer(style.stepDataSpillThresholdInBytes)
+                : null;
+        byte[][] stepRecords = FormStateCodec.encodeSteps(stepHelpers, spillBuffer);
+
+        String spillToken = null;
+        if (spillBuffer != null && !spillBuffer.isEmpty()) {
+            // The file is written in the background, so saving the state never waits for the disk
+            FormStateSpillStore spillStore = getSpillStore();
+            spillToken = spillStore.write(spillBuffer.toByteArray());
+
+            // The file of the state before the last one is not going to be restored anymore
+            if (previousSpillToken != null) {
+                spillStore.delete(previousSpillToken);
+            }
+            previousSpillToken = lastSpillToken;
+            lastSpillToken = spillToken;
+
+            spillStore.deleteStaleFilesIfNecessary(System.currentTimeMillis(), lastSpillToken, previousSpillToken);
+        }
+
+        return FormStateCodec.encode(stepRecords, spillToken, getOpenStepPosition(), formCompleted);
+    }
+
+    private FormStateSpillStore getSpillStore() {
+        if (spillStore == null) {
+            File noBackupFilesDirectory = ContextCompat.getNoBackupFilesDir(getContext());
+            spillStore = new FormStateSpillStore(new File(noBackupFilesDirectory, SPILLED_STATE_DIRECTORY_NAME));
+        }
+
+        return spillStore;
+    }
+
+    void setSpillStore(FormStateSpillStore spillStore) {
+        this.spillStore = spillStore;
+    }
+
+    private void restoreFromState(FormStateCodec.SavedFormState savedState) {
+        if (savedState.spillToken != null) {
+            // The data of the steps will only be read once it is needed, so the file of the restored
+            // state must not be considered stale in the meantime, no matter how old it is
+            long now = System.currentTimeMillis();
+            lastSpillToken = savedState.spillToken;
+            getSpillStore().keep(lastSpillToken, now);
+            getSpillStore().deleteStaleFilesIfNecessary(now, lastSpillToken, previousSpillToken);
+        }
+
+        for (int i = 0; i < savedState.decodedSteps.length; i++) {
+            if (!savedState.decodedSteps[i]) {
+                // The saved state of this step cannot be used, so the step will keep its own state
+                continue;
+            }
 
-        for (int i = 0; i < completedSteps.length; i++) {
             StepHelper stepHelper = stepHelpers.get(i);
             Step<?> step = stepHelper.getStepInstance();
 
-            step.restoreStepDataInternal(stepsData[i]);
-            step.restoreErrorStateInternal(errorSteps[i]);
-            step.updateTitle(titles[i], false);
-            step.updateSubtitle(subtitles[i], false);
-            step.updateNextButtonText(buttonTexts[i], false);
-            if (completedSteps[i]) {
+            if (savedState.spilledStepsData[i] != null) {
+                step.restoreSpilledStepDataInternal(savedState.spilledStepsData[i]);
+            } else {
+                step.restoreStepDataInternal(savedState.stepsData[i]);
+            }
+            step.restoreErrorStateInternal(savedState.errorSteps[i]);
+            step.updateTitle(savedState.titles[i], false);
+            step.updateSubtitle(savedState.subtitles[i], false);
+            step.updateNextButtonText(savedState.buttonTexts[i], false);
+            if (savedState.completedSteps[i]) {
                 step.markAsCompleted(false);
             } else {
-                step.markAsUncompleted(errorMessages[i], false);
+                step.markAsUncompleted(savedState.errorMessages[i], false);
             }
         }
 
-        goToStep(positionToOpen, false);
+        goToStep(savedState.openStepPosition, false);
 
-        if (formCompleted) {
+        if (savedState.formCompleted) {
             this.formCompleted = true;
             stepHelpers.get(getOpenStepPosition()).disableAllButtons();
             updateBottomNavigationButtons();
@@ -1140,22 +1750,24 @@ public class VerticalStepperFormView extends LinearLayout {
 
         @Override
         public void onUpdatedTitle(int stepPosition, boolean useAnimations) {
-            // No need to do anything here
+            autosaveStep(stepPosition);
         }
 
         @Override
         public void onUpdatedSubtitle(int stepPosition, boolean useAnimations) {
-            // No need to do anything here
+            autosaveStep(stepPosition);
         }
 
         @Override
         public void onUpdatedButtonText(int stepPosition, boolean useAnimations) {
-            // No need to do anything here
+            autosaveStep(stepPosition);
         }
 
         @Override
         public void onUpdatedErrorMessage(int stepPosition, boolean useAnimations) {
-            // No need to do anything here
+            // This gets called every time the data of a step is validated, so it is a good moment
+            // to save the data of the step
+            autosaveStep(stepPosition);
         }
 
         @Override
@@ -1163,6 +1775,7 @@ public class VerticalStepperFormView extends LinearLayout {
             updateBottomNavigationButtons();
             refreshFormProgress();
             enableOrDisableLastStepNextButton();
+            autosaveStep(stepPosition);
         }
 
         @Override
@@ -1170,6 +1783,25 @@ public class VerticalStepperFormView extends LinearLayout {
             updateBottomNavigationButtons();
             scrollToOpenStepIfNecessary(useAnimations);
             enableOrDisableLastStepNextButton();
+            if (autosave != null && initialized) {
+                autosave.onOpenStepChanged();
+            }
+        }
+
+        private void autosaveStep(int stepPosition) {
+            if (autosave != null && initialized && stepPosition >= 0 && stepPosition < stepHelpers.size()) {
+                autosave.onStepChanged(stepHelpers.get(stepPosition).getStepInstance());
+            }
+        }
+
+        @Override
+        public void onUpdatedValidationState(int stepPosition, boolean useAnimations) {
+            updateBottomNavigationButtons();
+        }
+
+        @Override
+        public void onUpdatedStepData(int stepPosition) {
+            autosaveStep(stepPosition);
         }
     }
 
@@ -1213,6 +1845,16 @@ public class VerticalStepperFormView extends LinearLayout {
         boolean allowNonLinearNavigation;
         boolean allowStepOpeningOnHeaderClick;
         boolean closeLastStepOnCompletion;
+        boolean virtualizeStepViews;
+        boolean createStepContentLazily;
+        boolean coalesceStepViewUpdates;
+        boolean useTransformBasedSlideAnimations;
+        boolean useHardwareLayersInSlideAnimations;
+        int maxConcurrentSlideAnimations;
+        boolean useFlatStepHeaders;
+        boolean reuseStepLayouts;
+        int stepDataSpillThresholdInBytes;
+        String autosaveDraftName;
         float alphaOfDisabledElements;
         Typeface stepNumberFontFamily;
         Typeface stepTitleFontFamily;
@@ -1220,12 +1862,157 @@ public class VerticalStepperFormView extends LinearLayout {
         Typeface stepErrorMessageFontFamily;
     }
 
-    private class KeyboardTogglingObserver implements ViewTreeObserver.OnGlobalLayoutListener {
+    private class AsyncFormInitializer implements Runnable {
+
+        private StepperFormInitializationListener initializationListener;
+        private View[] inflatedStepLayouts;
+        private AsyncLayoutInflater inflater;
+        private int numberOfRequestedStepLayouts;
+        private int numberOfInflationsInFlight;
+        private int numberOfAttachedStepLayouts;
+        private boolean attachmentScheduled;
+
+        AsyncFormInitializer(StepperFormInitializationListener initializationListener) {
+            this.initializationListener = initializationListener;
+            this.inflatedStepLayouts = new View[stepHelpers.size()];
+        }
+
+        void start() {
+            inflater = new AsyncLayoutInflater(getContext());
+            requestNextStepLayouts();
+        }
+
+        private void requestNextStepLayouts() {
+            // The queue of the inflation thread is small and adding requests to it blocks when it
+            // is full, so only a few requests are sent at a time. They are processed in order, so
+            // the first step will be the first one inflated.
+            while (numberOfInflationsInFlight < MAX_ASYNC_INFLATIONS_IN_FLIGHT
+                    && numberOfRequestedStepLayouts < inflatedStepLayouts.length) {
+
+                int position = numberOfRequestedStepLayouts++;
+                boolean isLast = (position + 1) == inflatedStepLayouts.length;
+                int stepLayoutResourceId = getStepLayoutResourceId(position, isLast);
+                if (style.reuseStepLayouts) {
+                    requestReusableStepLayout(position, stepLayoutResourceId);
+                } else {
+                    numberOfInflationsInFlight++;
+                    inflater.inflate(stepLayoutResourceId, formContentView, (view, resId, parent) ->
+                            onStepLayoutInflated(position, view));
+                }
+            }
+        }
+
+        private void requestReusableStepLayout(int position, @LayoutRes int stepLayoutResourceId) {
+            View pooledStepLayout = StepLayoutPool.obtainIfAvailable(getContext(), stepLayoutResourceId);
+            if (pooledStepLayout != null) {
+                inflatedStepLayouts[position] = pooledStepLayout;
+                scheduleAttachment();
+
+                return;
+            }
+
+            // Each layout needs its own context to be accepted by the pool afterwards. All the
+            // inflaters share the same background thread, so the requests are still processed in order.
+            Context stepLayoutContext = StepLayoutPool.createStepLayoutContext(getContext());
+            AsyncLayoutInflater reusableLayoutInflater = new AsyncLayoutInflater(stepLayoutContext);
+            numberOfInflationsInFlight++;
+            reusableLayoutInflater.inflate(stepLayoutResourceId, formContentView, (view, resId, parent) -> {
+                StepLayoutPool.register(view, stepLayoutContext, resId);
+                onStepLayoutInflated(position, view);
+            });
+        }
+
+        private void onStepLayoutInflated(int position, View stepLayout) {
+            numberOfInflationsInFlight--;
+            inflatedStepLayouts[position] = stepLayout;
+            scheduleAttachment();
+            requestNextStepLayouts();
+        }
+
+        @Override
+        public void run() {
+            attachmentScheduled = false;
+
+            // We attach as many inflated layouts as we can without exceeding the time of a frame
+            long startTime = SystemClock.uptimeMillis();
+            while (numberOfAttachedStepLayouts < inflatedStepLayouts.length
+                    && inflatedStepLayouts[numberOfAttachedStepLayouts] != null) {
+
+                attachStepLayout(numberOfAttachedStepLayouts);
+                numberOfAttachedStepLayouts++;
+
+                if (numberOfAttachedStepLayouts == 1 && getOpenStepPosition() == -1) {
+                    // The first step is displayed as soon as it is ready
+                    goToStep(0, false);
+                }
+
+                if ((SystemClock.uptimeMillis() - startTime) >= ASYNC_INITIALIZATION_FRAME_BUDGET_MILLIS) {
+                    break;
+                }
+            }
+
+            if (numberOfAttachedStepLayouts == inflatedStepLayouts.length) {
+                initialized = true;
+                restoreAutosavedDraft();
+                if (initializationListener != null) {
+                    initializationListener.onFormInitialized();
+                }
+            } else if (inflatedStepLayouts[numberOfAttachedStepLayouts] != null) {
+                scheduleAttachment();
+            }
+        }
+
+        private void scheduleAttachment() {
+            if (!attachmentScheduled) {
+                attachmentScheduled = true;
+                ViewCompat.postOnAnimation(VerticalStepperFormView.this, this);
+            }
+        }
+
+        private void attachStepLayout(int position) {
+            View stepLayout = inflatedStepLayouts[position];
+            inflatedStepLayouts[position] = null;
+
+            StepHelper stepHelper = stepHelpers.get(position);
+            if (!style.createStepContentLazily) {
+                stepHelper.createContentLayoutIfNecessary();
+            }
+            stepHelper.bindViews(VerticalStepperFormView.this, stepLayout);
+            formContentView.addView(stepLayout);
+        }
+    }
+
+    private class KeyboardTogglingObserver
+            implements ViewTreeObserver.OnGlobalLayoutListener, OnApplyWindowInsetsListener {
+
+        private boolean insetsReceived;
 
         @Override
         public void onGlobalLayout() {
+            onKeyboardVisibilityChecked(isKeyboardOpen());
+        }
+
+        @Override
+        public WindowInsetsCompat onApplyWindowInsets(View view, WindowInsetsCompat insets) {
+            insetsReceived = true;
+            onKeyboardVisibilityChecked(insets.isVisible(WindowInsetsCompat.Type.ime()));
+
+            return ViewCompat.onApplyWindowInsets(view, insets);
+        }
+
+        private void observeLayoutsIfInsetsAreNotReceived() {
+            // If an ancestor of the form consumes the insets, they will never get here, so we fall
+            // back to checking the visibility of the keyboard after every layout
+            if (isAttachedToWindow() && !insetsReceived) {
+                ViewTreeObserver viewTreeObserver = getRootView().getViewTreeObserver();
+                viewTreeObserver.removeOnGlobalLayoutListener(this);
+                viewTreeObserver.addOnGlobalLayoutListener(this);
+            }
+        }
+
+        private void onKeyboardVisibilityChecked(boolean keyboardOpen) {
             boolean keyboardWasOpen = keyboardIsOpen;
-            keyboardIsOpen = isKeyboardOpen();
+            keyboardIsOpen = keyboardOpen;
             if (initialized && keyboardIsOpen != keyboardWasOpen) {
                 scrollToOpenStepIfNecessary(true);
             }
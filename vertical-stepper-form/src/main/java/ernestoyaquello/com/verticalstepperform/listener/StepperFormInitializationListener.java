@@ -0,0 +1,12 @@
+package ernestoyaquello.com.verticalstepperform.listener;
+
+public interface StepperFormInitializationListener {
+
+    /**
+     * This method will be called once an asynchronous initialization of the form has finished,
+     * which means that the layouts of all the steps have been inflated and attached to the form.
+     * From this moment on, steps can be added and removed dynamically.
+     */
+    void onFormInitialized();
+
+}
@@ -1,6 +1,9 @@
 package ernestoyaquello.com.verticalstepperform.listener;
 
+import java.util.List;
+
 import ernestoyaquello.com.verticalstepperform.Step;
+import ernestoyaquello.com.verticalstepperform.StepChange;
 
 public interface StepperFormListener {
 
@@ -38,4 +41,24 @@ public interface StepperFormListener {
      */
     void onStepRemoved(int index);
 
+    /**
+     * It will get called once after several steps have been added and/or removed in one go via
+     * the method editSteps() of the form (or via addSteps(), removeSteps() or replaceSteps()).
+     *
+     * By default, it notifies each change separately through onStepAdded() and onStepRemoved(),
+     * in the order in which the changes were applied.
+     *
+     * @param changes The changes that were applied, in order. The index of each change refers to
+     *                the state of the form right after the previous change was applied.
+     */
+    default void onStepsChanged(List<StepChange> changes) {
+        for (StepChange change : changes) {
+            if (change.isAddition()) {
+                onStepAdded(change.getIndex(), change.getStep());
+            } else {
+                onStepRemoved(change.getIndex());
+            }
+        }
+    }
+
 }
@@ -0,0 +1,104 @@
+package ernestoyaquello.com.verticalstepperform;
+
+import android.app.Activity;
+import android.os.Looper;
+import android.view.View;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+
+import java.time.Duration;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.robolectric.Shadows.shadowOf;
+
+@RunWith(RobolectricTestRunner.class)
+public class DebouncedValidationTest {
+
+    private static final Duration MAX_VALIDATION_DELAY = Duration.ofSeconds(2);
+
+    private VerticalStepperFormView form;
+    private TestStep firstStep;
+    private TestStep lastStep;
+
+    @Before
+    public void setUp() {
+        Activity activity = Robolectric.buildActivity(Activity.class).setup().get();
+        activity.setTheme(androidx.appcompat.R.style.Theme_AppCompat_Light_NoActionBar);
+
+        firstStep = new TestStep("First step");
+        lastStep = new TestStep("Last step");
+        form = new VerticalStepperFormView(activity);
+        activity.setContentView(form);
+        form.setup(new TestFormListener(), firstStep, lastStep)
+                .includeConfirmationStep(false)
+                .init();
+        shadowOf(Looper.getMainLooper()).idle();
+    }
+
+    @Test
+    public void nextButtonsAreEnabledWhileTheValidationIsDelayed() {
+        assertNextButtonsEnabled(false);
+
+        firstStep.markAsCompletedOrUncompletedDebounced(false);
+        shadowOf(Looper.getMainLooper()).idle();
+
+        assertNextButtonsEnabled(true);
+    }
+
+    @Test
+    public void nextButtonsAreDisabledOnceTheDelayedValidationFails() {
+        firstStep.markAsCompletedOrUncompletedDebounced(false);
+        shadowOf(Looper.getMainLooper()).idleFor(MAX_VALIDATION_DELAY);
+
+        assertFalse(firstStep.isCompleted());
+        assertFalse(firstStep.isDebouncedValidationPendingInternal());
+        assertNextButtonsEnabled(false);
+    }
+
+    @Test
+    public void nextButtonsRemainEnabledOnceTheDelayedValidationSucceeds() {
+        firstStep.setData("Valid data");
+        firstStep.markAsCompletedOrUncompletedDebounced(false);
+        shadowOf(Looper.getMainLooper()).idleFor(MAX_VALIDATION_DELAY);
+
+        assertTrue(firstStep.isCompleted());
+        assertNextButtonsEnabled(true);
+    }
+
+    @Test
+    public void lastStepButtonIsDisabledOnceTheDelayedValidationFails() {
+        firstStep.setData("Valid data");
+        firstStep.markAsCompletedOrUncompleted(false);
+        form.goToNextStep(false);
+        shadowOf(Looper.getMainLooper()).idle();
+
+        lastStep.markAsCompletedOrUncompletedDebounced(false);
+        shadowOf(Looper.getMainLooper()).idle();
+        assertTrue(getStepButton(lastStep).isEnabled());
+
+        shadowOf(Looper.getMainLooper()).idleFor(MAX_VALIDATION_DELAY);
+
+        assertFalse(lastStep.isCompleted());
+        assertFalse(getStepButton(lastStep).isEnabled());
+    }
+
+    private void assertNextButtonsEnabled(boolean enabled) {
+        View bottomNavigationNextButton = form.findViewById(R.id.down_next);
+        if (enabled) {
+            assertTrue(getStepButton(firstStep).isEnabled());
+            assertTrue(bottomNavigationNextButton.isEnabled());
+        } else {
+            assertFalse(getStepButton(firstStep).isEnabled());
+            assertFalse(bottomNavigationNextButton.isEnabled());
+        }
+    }
+
+    private static View getStepButton(Step<?> step) {
+        return step.getEntireStepLayout().findViewById(R.id.step_button);
+    }
+}
@@ -0,0 +1,164 @@
+package ernestoyaquello.com.verticalstepperform;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class FormStateSpillStoreTest {
+
+    private static final long MAX_FILE_AGE_MILLIS = 1000;
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private File directory;
+    private FormStateSpillStore spillStore;
+
+    @Before
+    public void setUp() {
+        // The files are written on the calling thread, so the tests don't have to wait for them
+        directory = new File(temporaryFolder.getRoot(), "spilled");
+        spillStore = new FormStateSpillStore(directory, MAX_FILE_AGE_MILLIS, Runnable::run);
+    }
+
+    @Test
+    public void writtenContentCanBeReadBack() throws IOException {
+        byte[] content = new byte[]{1, 2, 3, 4, 5, 6, 7, 8};
+
+        String token = spillStore.write(content);
+
+        assertArrayEquals(content, spillStore.read(token, 0, content.length));
+        assertArrayEquals(new byte[]{3, 4, 5}, spillStore.read(token, 2, 3));
+    }
+
+    @Test
+    public void eachWriteGetsItsOwnFile() throws IOException {
+        String firstToken = spillStore.write(new byte[]{1});
+        String secondToken = spillStore.write(new byte[]{2});
+
+        assertFalse(firstToken.equals(secondToken));
+        assertArrayEquals(new byte[]{1}, spillStore.read(firstToken, 0, 1));
+        assertArrayEquals(new byte[]{2}, spillStore.read(secondToken, 0, 1));
+    }
+
+    @Test
+    public void readingBeyondTheContentFails() {
+        String token = spillStore.write(new byte[]{1, 2});
+
+        try {
+            spillStore.read(token, 1, 2);
+            fail("Reading beyond the end of the file should fail");
+        } catch (IOException e) {
+            // Expected
+        }
+    }
+
+    @Test
+    public void deletedContentCannotBeRead() {
+        String token = spillStore.write(new byte[]{1, 2, 3});
+
+        spillStore.delete(token);
+
+        try {
+            spillStore.read(token, 0, 3);
+            fail("Reading a deleted file should fail");
+        } catch (IOException e) {
+            // Expected
+        }
+    }
+
+    @Test
+    public void writesAreReadableWhenPerformedInTheBackground() throws IOException {
+        FormStateSpillStore backgroundSpillStore = new FormStateSpillStore(directory);
+        byte[] content = new byte[64 * 1024];
+        Arrays.fill(content, (byte) 7);
+
+        String token = backgroundSpillStore.write(content);
+
+        assertArrayEquals(content, backgroundSpillStore.read(token, 0, content.length));
+    }
+
+    @Test
+    public void onlyTheFilesOlderThanTheMaximumAgeAreStale() {
+        String oldToken = spillStore.write(new byte[]{1});
+        String recentToken = spillStore.write(new byte[]{2});
+        long now = System.currentTimeMillis();
+        assertTrue(getFile(oldToken).setLastModified(now - MAX_FILE_AGE_MILLIS - 1000));
+
+        int numberOfDeletedFiles = spillStore.deleteStaleFiles(now, Collections.emptyList());
+
+        assertEquals(1, numberOfDeletedFiles);
+        assertFalse(getFile(oldToken).exists());
+        assertTrue(getFile(recentToken).exists());
+    }
+
+    @Test
+    public void filesInUseAreNeverStale() {
+        String tokenInUse = spillStore.write(new byte[]{1});
+        long now = System.currentTimeMillis();
+        assertTrue(getFile(tokenInUse).setLastModified(now - MAX_FILE_AGE_MILLIS - 1000));
+
+        spillStore.deleteStaleFilesIfNecessary(now, tokenInUse, null);
+
+        assertTrue(getFile(tokenInUse).exists());
+    }
+
+    @Test
+    public void keptFilesAreNoLongerStale() throws IOException {
+        String token = spillStore.write(new byte[]{1});
+        long now = System.currentTimeMillis();
+        assertTrue(getFile(token).setLastModified(now - MAX_FILE_AGE_MILLIS - 1000));
+
+        spillStore.keep(token, now);
+        spillStore.deleteStaleFilesIfNecessary(now);
+
+        assertArrayEquals(new byte[]{1}, spillStore.read(token, 0, 1));
+    }
+
+    @Test
+    public void staleFilesAreOnlyDeletedOncePerInterval() {
+        long now = System.currentTimeMillis();
+        spillStore.deleteStaleFilesIfNecessary(now);
+
+        String token = spillStore.write(new byte[]{1});
+        assertTrue(getFile(token).setLastModified(now - MAX_FILE_AGE_MILLIS - 1000));
+        spillStore.deleteStaleFilesIfNecessary(now + 1);
+
+        assertTrue(getFile(token).exists());
+    }
+
+    @Test
+    public void abandonedTemporaryFilesAreStale() throws IOException {
+        File temporaryFile = new File(directory, "abandoned.tmp");
+        assertTrue(directory.exists() || directory.mkdirs());
+        assertTrue(temporaryFile.createNewFile());
+        long now = System.currentTimeMillis();
+        assertTrue(temporaryFile.setLastModified(now - 2 * 60 * 60 * 1000L));
+
+        int numberOfDeletedFiles = spillStore.deleteStaleFiles(now, Collections.emptyList());
+
+        assertEquals(1, numberOfDeletedFiles);
+        assertFalse(temporaryFile.exists());
+    }
+
+    @Test
+    public void deletingStaleFilesOfMissingDirectoryDoesNothing() {
+        assertEquals(0, spillStore.deleteStaleFiles(System.currentTimeMillis(), Collections.emptyList()));
+    }
+
+    private File getFile(String token) {
+        return new File(directory, token + ".state");
+    }
+}
@@ -0,0 +1,200 @@
+package ernestoyaquello.com.verticalstepperform;
+
+import android.app.Activity;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Compares the cost of looking up, adding and removing steps in forms of 10, 100 and 1000 steps.
+ * The step positions used to be found with a linear scan, so the lookups are measured against one.
+ *
+ * These benchmarks are excluded from the regular unit tests. Run them with
+ * "./gradlew test -Pbenchmarks".
+ */
+@RunWith(RobolectricTestRunner.class)
+public class StepPositionBenchmarkTest {
+
+    private static final int[] FORM_SIZES = new int[]{10, 100, 1000};
+    private static final int NUMBER_OF_LOOKUPS = 100_000;
+    private static final int NUMBER_OF_CHANGES = 20;
+    private static final int NUMBER_OF_RUNS = 5;
+
+    // A linear scan gets 100 times slower from the smallest form to the largest one, so these
+    // bounds leave plenty of room for noise while still catching any operation that isn't
+    // constant time (lookups) or that is worse than linear time (additions and removals)
+    private static final double MAX_LOOKUP_COST_GROWTH = 10;
+    private static final double MAX_CHANGE_COST_GROWTH = 100;
+
+    private Activity activity;
+
+    @Before
+    public void setUp() {
+        activity = Robolectric.buildActivity(Activity.class).setup().get();
+        activity.setTheme(androidx.appcompat.R.style.Theme_AppCompat_Light_NoActionBar);
+    }
+
+    @Test
+    public void getStepPositionTakesConstantTime() {
+        double[] indexedLookupCosts = new double[FORM_SIZES.length];
+        double[] linearScanCosts = new double[FORM_SIZES.length];
+        for (int i = 0; i < FORM_SIZES.length; i++) {
+            int formSize = FORM_SIZES[i];
+            List<Step<?>> steps = createSteps(formSize);
+            VerticalStepperFormView form = createForm(steps);
+
+            indexedLookupCosts[i] = measureLookups(steps, step -> form.getStepPosition(step));
+            linearScanCosts[i] = measureLookups(steps, step -> findStepPositionLinearly(steps, step));
+        }
+
+        int largest = FORM_SIZES.length - 1;
+        assertTrue(
+                describe("getStepPosition", indexedLookupCosts) + " should beat " + describe("linear scan", linearScanCosts),
+                indexedLookupCosts[largest] < linearScanCosts[largest]);
+        assertTrue(
+                describe("getStepPosition", indexedLookupCosts) + " should not depend on the form size",
+                indexedLookupCosts[largest] / indexedLookupCosts[0] < MAX_LOOKUP_COST_GROWTH);
+    }
+
+    @Test
+    public void addStepTakesLinearTime() {
+        double[] costs = new double[FORM_SIZES.length];
+        for (int i = 0; i < FORM_SIZES.length; i++) {
+            int formSize = FORM_SIZES[i];
+            VerticalStepperFormView form = createForm(createSteps(formSize));
+            int index = formSize / 2;
+
+            costs[i] = Double.MAX_VALUE;
+            for (int run = 0; run < NUMBER_OF_RUNS; run++) {
+                long elapsedTime = 0;
+                for (int change = 0; change < NUMBER_OF_CHANGES; change++) {
+                    Step<?> stepToAdd = new TestStep("Added step");
+
+                    long startTime = System.nanoTime();
+                    assertTrue(form.addStep(index, stepToAdd));
+                    elapsedTime += System.nanoTime() - startTime;
+
+                    assertEquals(index, form.getStepPosition(stepToAdd));
+                }
+                costs[i] = Math.min(costs[i], (double) elapsedTime / NUMBER_OF_CHANGES);
+            }
+
+            assertEquals(formSize + NUMBER_OF_RUNS * NUMBER_OF_CHANGES, form.getTotalNumberOfSteps());
+        }
+
+        assertTrue(
+                describe("addStep", costs) + " should not be worse than linear",
+                costs[FORM_SIZES.length - 1] / costs[0] < MAX_CHANGE_COST_GROWTH);
+    }
+
+    @Test
+    public void removeStepTakesLinearTime() {
+        double[] costs = new double[FORM_SIZES.length];
+        for (int i = 0; i < FORM_SIZES.length; i++) {
+            int formSize = FORM_SIZES[i];
+            List<Step<?>> steps = createSteps(formSize + NUMBER_OF_RUNS * NUMBER_OF_CHANGES);
+            VerticalStepperFormView form = createForm(steps);
+            Step<?> lastStep = steps.get(steps.size() - 1);
+            int index = formSize / 2;
+
+            costs[i] = Double.MAX_VALUE;
+            for (int run = 0; run < NUMBER_OF_RUNS; run++) {
+                long elapsedTime = 0;
+                for (int change = 0; change < NUMBER_OF_CHANGES; change++) {
+                    Step<?> stepToRemove = steps.get(index + run * NUMBER_OF_CHANGES + change);
+
+                    long startTime = System.nanoTime();
+                    assertTrue(form.removeStep(index));
+                    elapsedTime += System.nanoTime() - startTime;
+
+                    assertEquals(-1, form.getStepPosition(stepToRemove));
+                    assertEquals(form.getTotalNumberOfSteps() - 1, form.getStepPosition(lastStep));
+                }
+                costs[i] = Math.min(costs[i], (double) elapsedTime / NUMBER_OF_CHANGES);
+            }
+
+            assertEquals(formSize, form.getTotalNumberOfSteps());
+        }
+
+        assertTrue(
+                describe("removeStep", costs) + " should not be worse than linear",
+                costs[FORM_SIZES.length - 1] / costs[0] < MAX_CHANGE_COST_GROWTH);
+    }
+
+    private VerticalStepperFormView createForm(List<Step<?>> steps) {
+        VerticalStepperFormView form = new VerticalStepperFormView(activity);
+        activity.setContentView(form);
+        form.setup(new TestFormListener(), steps)
+                .includeConfirmationStep(false)
+                .init();
+
+        return form;
+    }
+
+    private static List<Step<?>> createSteps(int numberOfSteps) {
+        List<Step<?>> steps = new ArrayList<>(numberOfSteps);
+        for (int i = 0; i < numberOfSteps; i++) {
+            steps.add(new TestStep("Step " + i));
+        }
+
+        return steps;
+    }
+
+    private static double measureLookups(List<Step<?>> steps, PositionFinder positionFinder) {
+        long expectedChecksum = 0;
+        for (int i = 0; i < NUMBER_OF_LOOKUPS; i++) {
+            expectedChecksum += i % steps.size();
+        }
+
+        // The fastest run is the one least affected by the JIT compiler and the garbage collector
+        double cost = Double.MAX_VALUE;
+        for (int run = 0; run < NUMBER_OF_RUNS; run++) {
+            long checksum = 0;
+            long startTime = System.nanoTime();
+            for (int i = 0; i < NUMBER_OF_LOOKUPS; i++) {
+                checksum += positionFinder.findPosition(steps.get(i % steps.size()));
+            }
+            long elapsedTime = System.nanoTime() - startTime;
+
+            assertEquals(expectedChecksum, checksum);
+            cost = Math.min(cost, (double) elapsedTime / NUMBER_OF_LOOKUPS);
+        }
+
+        return cost;
+    }
+
+    private static int findStepPositionLinearly(List<Step<?>> steps, Step<?> step) {
+        for (int i = 0; i < steps.size(); i++) {
+            if (steps.get(i) == step) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    private static String describe(String operation, double[] costs) {
+        StringBuilder description = new StringBuilder(operation).append(" (");
+        for (int i = 0; i < FORM_SIZES.length; i++) {
+            if (i > 0) {
+                description.append(", ");
+            }
+            description.append(String.format("%d steps: %.1f ns/op", FORM_SIZES[i], costs[i]));
+        }
+
+        return description.append(")").toString();
+    }
+
+    private interface PositionFinder {
+        int findPosition(Step<?> step);
+    }
+}
@@ -0,0 +1,25 @@
+package ernestoyaquello.com.verticalstepperform;
+
+import ernestoyaquello.com.verticalstepperform.listener.StepperFormListener;
+
+/**
+ * Form listener used by the tests. It ignores all the events.
+ */
+class TestFormListener implements StepperFormListener {
+
+    @Override
+    public void onCompletedForm() {
+    }
+
+    @Override
+    public void onCancelledForm() {
+    }
+
+    @Override
+    public void onStepAdded(int index, Step<?> addedStep) {
+    }
+
+    @Override
+    public void onStepRemoved(int index) {
+    }
+}
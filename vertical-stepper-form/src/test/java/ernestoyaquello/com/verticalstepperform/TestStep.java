@@ -0,0 +1,60 @@
+package ernestoyaquello.com.verticalstepperform;
+
+import android.view.View;
+
+/**
+ * Step used by the tests. Its data is a text that is only valid when it isn't empty.
+ */
+class TestStep extends Step<String> {
+
+    private String data = "";
+
+    TestStep(String title) {
+        super(title);
+    }
+
+    void setData(String data) {
+        this.data = data;
+    }
+
+    @Override
+    public String getStepData() {
+        return data;
+    }
+
+    @Override
+    public String getStepDataAsHumanReadableString() {
+        return data;
+    }
+
+    @Override
+    protected void restoreStepData(String data) {
+        this.data = data;
+    }
+
+    @Override
+    protected IsDataValid isStepDataValid(String stepData) {
+        return new IsDataValid(!stepData.isEmpty(), "The text cannot be empty");
+    }
+
+    @Override
+    protected View createStepContentLayout() {
+        return new View(getContext());
+    }
+
+    @Override
+    protected void onStepOpened(boolean animated) {
+    }
+
+    @Override
+    protected void onStepClosed(boolean animated) {
+    }
+
+    @Override
+    protected void onStepMarkedAsCompleted(boolean animated) {
+    }
+
+    @Override
+    protected void onStepMarkedAsUncompleted(boolean animated) {
+    }
+}